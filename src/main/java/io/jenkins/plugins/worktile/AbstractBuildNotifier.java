@@ -0,0 +1,121 @@
+package io.jenkins.plugins.worktile;
+
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.Util;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.tasks.BuildStepMonitor;
+import hudson.tasks.Notifier;
+import io.jenkins.plugins.worktile.model.WTBuildEntity;
+import io.jenkins.plugins.worktile.service.RecordDeduplicator;
+import io.jenkins.plugins.worktile.service.SharedReports;
+import io.jenkins.plugins.worktile.service.WTRestService;
+import jenkins.tasks.SimpleBuildStep;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Build notifier shared by {@link PCBuildNotifier} and the legacy {@link WTBuildNotifier}. When both are
+ * configured on a job with the same settings, the second one reuses the record sent by the first.
+ */
+public abstract class AbstractBuildNotifier extends Notifier implements SimpleBuildStep {
+
+    private String overview;
+
+    private String defaultSummary;
+
+    private String resultURL;
+
+    private String specifiedWorkItems;
+
+    protected AbstractBuildNotifier(String overview, String defaultSummary, final String resultURL,
+            final String specifiedWorkItems) {
+        setOverview(overview);
+        setDefaultSummary(defaultSummary);
+        setResultURL(resultURL);
+        setSpecifiedWorkItems(specifiedWorkItems);
+    }
+
+    public String getResultURL() {
+        return resultURL;
+    }
+
+    @DataBoundSetter
+    public void setResultURL(String resultURL) {
+        this.resultURL = resultURL;
+    }
+
+    public String getSpecifiedWorkItems() {
+        return specifiedWorkItems;
+    }
+
+    @DataBoundSetter
+    public void setSpecifiedWorkItems(final String specifiedWorkItems) {
+        this.specifiedWorkItems = specifiedWorkItems;
+    }
+
+    public String getDefaultSummary() {
+        return defaultSummary;
+    }
+
+    @DataBoundSetter
+    public void setDefaultSummary(String defaultSummary) {
+        this.defaultSummary = Util.fixEmptyAndTrim(defaultSummary);
+    }
+
+    public String getOverview() {
+        return overview;
+    }
+
+    @DataBoundSetter
+    public void setOverview(String overview) {
+        this.overview = Util.fixEmptyAndTrim(overview);
+    }
+
+    @Override
+    public void perform(@Nonnull Run<?, ?> run, @Nonnull FilePath workspace, @Nonnull Launcher launcher,
+            @Nonnull TaskListener listener) throws IOException, InterruptedException {
+        this.createBuild(run, workspace, listener);
+    }
+
+    private void createBuild(Run<?, ?> run, FilePath workspace, @Nonnull TaskListener listener)
+            throws IOException, InterruptedException {
+        WTLogger logger = new WTLogger(listener);
+        List<?> record = SharedReports.key("build-notifier", String.valueOf(run.getResult()), workspace.getRemote(),
+                getOverview(), getDefaultSummary(), getResultURL(), getSpecifiedWorkItems());
+        WTBuildEntity entity = SharedReports.await(SharedReports.share(run, record, logger,
+                "Reuse the work items already resolved for this build",
+                () -> CompletableFuture.completedFuture(WTBuildEntity.from(run, workspace, listener, getOverview(),
+                        getDefaultSummary(), getResultURL(), getSpecifiedWorkItems()))));
+
+        try {
+            boolean sent = SharedReports.await(SharedReports.share(run, SharedReports.key(record, "sent"), logger,
+                    "Reuse the build record already sent for this build", () -> {
+                        logger.items("Send work items to pingcode", entity.workItemIdentifiers);
+                        logger.debug("Will send data to pingcode: " + entity);
+                        return CompletableFuture.completedFuture(new WTRestService().createBuild(entity));
+                    }));
+            if (sent) {
+                logger.info("Create pingcode build record successfully.");
+            } else {
+                logger.info(RecordDeduplicator.skipped("build record"));
+            }
+        } //
+        catch (InterruptedException error) {
+            throw error;
+        } //
+        catch (Exception error) {
+            logger.error(error.getMessage());
+        }
+    }
+
+    @Override
+    public BuildStepMonitor getRequiredMonitorService() {
+        return BuildStepMonitor.NONE;
+    }
+}
@@ -0,0 +1,214 @@
+package io.jenkins.plugins.worktile;
+
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.Util;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.tasks.BuildStepMonitor;
+import hudson.tasks.Notifier;
+import io.jenkins.plugins.worktile.model.WTDeployEntity;
+import io.jenkins.plugins.worktile.model.WTEnvironmentEntity;
+import io.jenkins.plugins.worktile.model.WTEnvironmentSchema;
+import io.jenkins.plugins.worktile.model.WTRestException;
+import io.jenkins.plugins.worktile.service.OrderedDeliveries;
+import io.jenkins.plugins.worktile.service.RecordDeduplicator;
+import io.jenkins.plugins.worktile.service.SharedReports;
+import io.jenkins.plugins.worktile.service.WTRestApiService;
+import io.jenkins.plugins.worktile.service.WTRestService;
+import jenkins.tasks.SimpleBuildStep;
+import org.jetbrains.annotations.NotNull;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Deploy notifier shared by {@link PCDeployNotifier} and the legacy {@link WTDeployNotifier}. When both are
+ * configured on a job with the same settings, the work items are resolved once and each environment gets one
+ * record.
+ */
+public abstract class AbstractDeployNotifier extends Notifier implements SimpleBuildStep {
+    private String environmentName;
+
+    private String environmentNames;
+
+    private String releaseName;
+
+    private String releaseUrl;
+
+    private String specifiedWorkItems;
+
+    private boolean tagged;
+
+    protected AbstractDeployNotifier(final String releaseName, final String environmentName,
+            final String releaseUrl, final String specifiedWorkItems, boolean tagged) {
+        setReleaseName(releaseName);
+        setReleaseUrl(releaseUrl);
+        setSpecifiedWorkItems(specifiedWorkItems);
+        setEnvironmentName(environmentName);
+        setTagged(tagged);
+    }
+
+    public boolean getTagged() {
+        return tagged;
+    }
+
+    public void setTagged(boolean tagged) {
+        this.tagged = tagged;
+    }
+
+    @Override
+    public BuildStepMonitor getRequiredMonitorService() {
+        return BuildStepMonitor.NONE;
+    }
+
+    @Override
+    public void perform(@NotNull Run<?, ?> run, @NotNull FilePath workspace, @NotNull Launcher launcher,
+            @NotNull TaskListener listener) throws IOException, InterruptedException {
+        WTLogger wtLogger = new WTLogger(listener);
+
+        List<String> names = environments();
+        List<?> record = SharedReports.key("deploy-notifier", String.valueOf(run.getResult()),
+                workspace.getRemote(), getReleaseName(), getReleaseUrl(), getSpecifiedWorkItems(), tagged, names);
+        WTDeployEntity entity = SharedReports.await(SharedReports.share(run, record, wtLogger,
+                "Reuse the work items already resolved for this build", () -> {
+                    WTDeployEntity resolved = WTDeployEntity.from(run, workspace, listener, getReleaseName(),
+                            getReleaseUrl(), getSpecifiedWorkItems(), tagged, names);
+                    wtLogger.items("Send work items to pingcode", resolved.workItemIdentifiers);
+                    return CompletableFuture.completedFuture(resolved);
+                }));
+        // concurrent builds resolve in parallel, the records of one environment of the job are sent in run order
+        // and a record older than one already sent is dropped
+        Map<String, CompletableFuture<Boolean>> deliveries = new LinkedHashMap<>();
+        for (String name : names) {
+            deliveries.put(name, SharedReports.share(run, SharedReports.key(record, name), wtLogger,
+                    "Reuse the deploy record of " + name + " already sent for this build",
+                    () -> OrderedDeliveries.submitLatest(
+                            "deploy:" + run.getParent().getFullName() + ":" + name, run.getNumber(), null,
+                            () -> deliver(entity.forEnvironment(null, name), name, wtLogger))));
+        }
+        try {
+            for (Map.Entry<String, CompletableFuture<Boolean>> delivery : deliveries.entrySet()) {
+                try {
+                    Boolean sent = delivery.getValue().get();
+                    if (sent == null) {
+                        wtLogger.info("Skip the deploy record of " + delivery.getKey()
+                                + ", a later build of this job already sent one.");
+                    } else if (sent) {
+                        wtLogger.info("Create pingcode deploy record of " + delivery.getKey() + " successfully.");
+                    } else {
+                        wtLogger.info(RecordDeduplicator.skipped("deploy record of " + delivery.getKey()));
+                    }
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                            ? e.getCause().getCause() : e.getCause();
+                    wtLogger.error(delivery.getKey() + ": " + cause.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            for (CompletableFuture<Boolean> delivery : deliveries.values()) {
+                delivery.cancel(true);
+            }
+            throw e;
+        }
+    }
+
+    private List<String> environments() {
+        Set<String> names = new LinkedHashSet<>();
+        if (environmentName != null) {
+            names.add(environmentName);
+        }
+        if (environmentNames != null) {
+            for (String name : environmentNames.split("[\\r\\n,]+")) {
+                if (WTHelper.isNotBlank(name)) {
+                    names.add(name.trim());
+                }
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * Looks the environment up on the report thread and returns the send without waiting for it, so the thread is
+     * free while the record waits in the outbound queue.
+     */
+    private CompletableFuture<Boolean> deliver(WTDeployEntity entity, String name, WTLogger wtLogger) {
+        WTRestService service = new WTRestService();
+        WTRestApiService api = service.authorize();
+        try {
+            entity.envId = handleEnvName(name, service);
+        } catch (Exception exception) {
+            wtLogger.error(exception.getMessage());
+            if (exception instanceof WTRestException) {
+                if (!((WTRestException) exception).getCode().equals("100105")) {
+                    wtLogger.error(exception.getMessage());
+                }
+            }
+        }
+
+        wtLogger.debug("Will send data to pingcode: " + entity);
+        return service.createDeployAsync(api, entity);
+    }
+
+    public String handleEnvName(String name, WTRestService service) throws IOException, WTRestException {
+        WTEnvironmentSchema schema = service.getEnvironmentByName(name);
+        if (schema == null) {
+            schema = service.createEnvironment(new WTEnvironmentEntity(name));
+        }
+        return schema.id;
+    }
+
+    public String getReleaseName() {
+        return releaseName;
+    }
+
+    @DataBoundSetter
+    public void setReleaseName(final String releaseName) {
+        this.releaseName = Util.fixEmptyAndTrim(releaseName);
+    }
+
+    public String getReleaseUrl() {
+        return releaseUrl;
+    }
+
+    @DataBoundSetter
+    public void setReleaseUrl(final String releaseUrl) {
+        this.releaseUrl = Util.fixEmptyAndTrim(releaseUrl);
+    }
+
+    public String getSpecifiedWorkItems() {
+        return specifiedWorkItems;
+    }
+
+    @DataBoundSetter
+    public void setSpecifiedWorkItems(final String specifiedWorkItems) {
+        this.specifiedWorkItems = specifiedWorkItems;
+    }
+
+    public String getEnvironmentNames() {
+        return environmentNames;
+    }
+
+    @DataBoundSetter
+    public void setEnvironmentNames(String environmentNames) {
+        this.environmentNames = Util.fixEmptyAndTrim(environmentNames);
+    }
+
+    public String getEnvironmentName() {
+        return environmentName;
+    }
+
+    @DataBoundSetter
+    public void setEnvironmentName(String environment) {
+        this.environmentName = Util.fixEmptyAndTrim(environment);
+    }
+}
@@ -0,0 +1,103 @@
+package io.jenkins.plugins.worktile;
+
+import hudson.Extension;
+import hudson.model.AbstractBuild;
+import hudson.model.Item;
+import hudson.model.ItemGroup;
+import hudson.model.Node;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.labels.LabelAtom;
+import hudson.model.listeners.RunListener;
+import io.jenkins.plugins.worktile.service.AutoReportRules;
+import io.jenkins.plugins.worktile.service.AutoReports;
+import io.jenkins.plugins.worktile.service.SharedReports;
+import org.jenkinsci.plugins.workflow.actions.WorkspaceAction;
+import org.jenkinsci.plugins.workflow.flow.FlowExecution;
+import org.jenkinsci.plugins.workflow.graph.FlowNode;
+import org.jenkinsci.plugins.workflow.graphanalysis.DepthFirstScanner;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Reports every completed run matching the automatic reporting rules, unless a notifier or step of the run
+ * already sent its build record. The run is only queued here; it is resolved and sent off the executor. Label rules
+ * on a pipeline, which walk its flow graph, are also checked there.
+ */
+@Extension
+public class AutoReportListener extends RunListener<Run<?, ?>> {
+
+    @Override
+    public void onCompleted(Run<?, ?> run, @Nonnull TaskListener listener) {
+        WTGlobalConfiguration config = WTGlobalConfiguration.get();
+        if (!config.isAutoReport() || SharedReports.has(run, "build")) {
+            return;
+        }
+        AutoReportRules rules = AutoReportRules.of(config.getAutoReportIncludes(), config.getAutoReportExcludes());
+        WTLogger logger = new WTLogger(listener);
+        boolean offered;
+        if (run instanceof WorkflowRun && rules.hasLabelRules()) {
+            offered = AutoReports.offer(run, config.getAutoReportBatchSize(), AutoReportListener::matches);
+            if (offered) {
+                logger.info("Queued the build record for automatic reporting to pingcode, it is sent if the run "
+                        + "matches the label rules.");
+            }
+        } else if (matches(run)) {
+            offered = AutoReports.offer(run, config.getAutoReportBatchSize());
+            if (offered) {
+                logger.info("Queued the build record for automatic reporting to pingcode.");
+            }
+        } else {
+            return;
+        }
+        if (!offered) {
+            logger.info("The automatic reporting queue is full, the build record is not sent.");
+        }
+    }
+
+    private static boolean matches(Run<?, ?> run) {
+        WTGlobalConfiguration config = WTGlobalConfiguration.get();
+        AutoReportRules rules = AutoReportRules.of(config.getAutoReportIncludes(), config.getAutoReportExcludes());
+        return rules.matches(run.getParent().getFullName(), folders(run), () -> labels(run));
+    }
+
+    private static List<String> folders(Run<?, ?> run) {
+        List<String> folders = new ArrayList<>();
+        for (ItemGroup<?> group = run.getParent().getParent(); group instanceof Item; ) {
+            folders.add(((Item) group).getFullName());
+            group = ((Item) group).getParent();
+        }
+        return folders;
+    }
+
+    private static Collection<String> labels(Run<?, ?> run) {
+        Set<String> labels = new TreeSet<>();
+        if (run instanceof AbstractBuild) {
+            Node node = ((AbstractBuild<?, ?>) run).getBuiltOn();
+            if (node != null) {
+                for (LabelAtom label : node.getAssignedLabels()) {
+                    labels.add(label.getName());
+                }
+            }
+        } else if (run instanceof WorkflowRun) {
+            FlowExecution execution = ((WorkflowRun) run).getExecution();
+            if (execution != null) {
+                for (FlowNode node : new DepthFirstScanner().allNodes(execution)) {
+                    WorkspaceAction workspace = node.getAction(WorkspaceAction.class);
+                    if (workspace != null) {
+                        for (LabelAtom label : workspace.getLabels()) {
+                            labels.add(label.getName());
+                        }
+                    }
+                }
+            }
+        }
+        return labels;
+    }
+}
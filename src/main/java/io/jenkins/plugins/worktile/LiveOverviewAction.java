@@ -0,0 +1,35 @@
+package io.jenkins.plugins.worktile;
+
+import hudson.model.InvisibleAction;
+
+/**
+ * Last console line of a run that matched each of its overview patterns, kept up to date by
+ * {@link LiveOverviewFilter}.
+ */
+public class LiveOverviewAction extends InvisibleAction {
+    static final int MAX_LENGTH = 1024;
+
+    private final String pattern;
+
+    private final String[] matches;
+
+    public LiveOverviewAction(String pattern, int patterns) {
+        this.pattern = pattern;
+        this.matches = new String[patterns];
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * The last matching line of each pattern joined in pattern order, or null when nothing matched yet.
+     */
+    public synchronized String getOverview() {
+        return OverviewScanner.join(matches);
+    }
+
+    synchronized void setMatch(int index, String line) {
+        matches[index] = line.length() > MAX_LENGTH ? line.substring(0, MAX_LENGTH) : line;
+    }
+}
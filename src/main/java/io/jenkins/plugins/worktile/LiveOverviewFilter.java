@@ -0,0 +1,113 @@
+package io.jenkins.plugins.worktile;
+
+import hudson.Extension;
+import hudson.console.ConsoleLogFilter;
+import hudson.console.ConsoleNote;
+import hudson.console.LineTransformationOutputStream;
+import hudson.model.AbstractBuild;
+import hudson.model.Descriptor;
+import hudson.model.Run;
+import hudson.tasks.Publisher;
+import hudson.util.DescribableList;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Matches the overview pattern of jobs having a {@link LiveOverviewProperty} against each console line as it is
+ * written and keeps the last match in a {@link LiveOverviewAction}, so the overview is known without reading the
+ * log back when the build is reported.
+ */
+@Extension
+public class LiveOverviewFilter extends ConsoleLogFilter implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public OutputStream decorateLogger(Run build, OutputStream logger) throws IOException, InterruptedException {
+        if (build == null) {
+            return logger;
+        }
+        LiveOverviewProperty property = (LiveOverviewProperty) build.getParent()
+                .getProperty(LiveOverviewProperty.class);
+        if (property == null) {
+            return logger;
+        }
+        String source = property.getPattern() != null ? property.getPattern() : notifierOverview(build);
+        if (source == null || LiveOverviewProperty.validate(source) != null) {
+            return logger;
+        }
+        List<Pattern> patterns = OverviewScanner.compile(source);
+        if (patterns.isEmpty()) {
+            return logger;
+        }
+        LiveOverviewAction action = build.getAction(LiveOverviewAction.class);
+        if (action == null || !source.equals(action.getPattern())) {
+            if (action != null) {
+                build.removeAction(action);
+            }
+            action = new LiveOverviewAction(source, patterns.size());
+            build.addAction(action);
+        }
+        return new MatchingOutputStream(logger, patterns, build.getCharset(), action);
+    }
+
+    private static String notifierOverview(Run<?, ?> build) {
+        if (!(build instanceof AbstractBuild)) {
+            return null;
+        }
+        DescribableList<Publisher, Descriptor<Publisher>> publishers = ((AbstractBuild<?, ?>) build).getProject()
+                .getPublishersList();
+        WTBuildNotifier wtNotifier = publishers.get(WTBuildNotifier.class);
+        if (wtNotifier != null && WTHelper.isNotBlank(wtNotifier.getOverview())) {
+            return wtNotifier.getOverview();
+        }
+        PCBuildNotifier pcNotifier = publishers.get(PCBuildNotifier.class);
+        if (pcNotifier != null && WTHelper.isNotBlank(pcNotifier.getOverview())) {
+            return pcNotifier.getOverview();
+        }
+        return null;
+    }
+
+    private static class MatchingOutputStream extends LineTransformationOutputStream {
+        private final OutputStream out;
+        private final List<Pattern> patterns;
+        private final Charset charset;
+        private final LiveOverviewAction action;
+
+        MatchingOutputStream(OutputStream out, List<Pattern> patterns, Charset charset, LiveOverviewAction action) {
+            this.out = out;
+            this.patterns = patterns;
+            this.charset = charset;
+            this.action = action;
+        }
+
+        @Override
+        protected void eol(byte[] b, int len) throws IOException {
+            out.write(b, 0, len);
+            String line = trimEOL(new String(b, 0, len, charset));
+            if (line.contains(ConsoleNote.PREAMBLE_STR)) {
+                line = ConsoleNote.removeNotes(line);
+            }
+            for (int i = 0; i < patterns.size(); i++) {
+                if (patterns.get(i).matcher(line).find()) {
+                    action.setMatch(i, line);
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            super.close();
+            out.close();
+        }
+    }
+}
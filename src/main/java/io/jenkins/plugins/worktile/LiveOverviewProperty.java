@@ -0,0 +1,74 @@
+package io.jenkins.plugins.worktile;
+
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.Descriptor.FormException;
+import hudson.model.Job;
+import hudson.model.JobProperty;
+import hudson.model.JobPropertyDescriptor;
+import hudson.util.FormValidation;
+import net.sf.json.JSONObject;
+import org.jetbrains.annotations.NotNull;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.StaplerRequest;
+
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Opts a job into matching the build overview pattern while the console is written, see {@link LiveOverviewFilter}.
+ */
+public class LiveOverviewProperty extends JobProperty<Job<?, ?>> {
+
+    private final String pattern;
+
+    @DataBoundConstructor
+    public LiveOverviewProperty(String pattern) {
+        this.pattern = Util.fixEmptyAndTrim(pattern);
+    }
+
+    /**
+     * The pattern to match, or null to use the overview of the build notifier of the job.
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    static String validate(String source) {
+        try {
+            OverviewScanner.compile(source);
+            return null;
+        } catch (PatternSyntaxException e) {
+            return e.getDescription() + " near index " + e.getIndex();
+        }
+    }
+
+    @Extension
+    public static class DescriptorImpl extends JobPropertyDescriptor {
+
+        @NotNull
+        @Override
+        public String getDisplayName() {
+            return "Capture PingCode build overview live";
+        }
+
+        @Override
+        public JobProperty<?> newInstance(StaplerRequest request, JSONObject formData) throws FormException {
+            JobProperty<?> property = super.newInstance(request, formData);
+            if (property instanceof LiveOverviewProperty) {
+                String source = ((LiveOverviewProperty) property).getPattern();
+                String problem = source == null ? null : validate(source);
+                if (problem != null) {
+                    throw new FormException("Invalid overview pattern: " + problem, "pattern");
+                }
+            }
+            return property;
+        }
+
+        public FormValidation doCheckPattern(@QueryParameter String value) {
+            String source = Util.fixEmptyAndTrim(value);
+            String problem = source == null ? null : validate(source);
+            return problem == null ? FormValidation.ok() : FormValidation.error(problem);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package io.jenkins.plugins.worktile;
+
+import hudson.console.ConsoleNote;
+import hudson.model.Run;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the build overview by reading the console log backwards from its end. Every non-blank line of the overview
+ * pattern is a separate pattern; all of them are matched in one pass, which stops as soon as each has matched or
+ * the byte budget is used up. The overview is the last matching line of each pattern, in pattern order.
+ */
+public final class OverviewScanner {
+    public static final long DEFAULT_BYTE_BUDGET = 16L << 20;
+
+    static final int MAX_LINE_BYTES = 8192;
+    static final int FALLBACK_LINES = 999;
+
+    private OverviewScanner() {
+    }
+
+    public static List<Pattern> compile(String source) {
+        List<Pattern> patterns = new ArrayList<>();
+        for (String line : source.split("\\r?\\n")) {
+            if (WTHelper.isNotBlank(line)) {
+                patterns.add(Pattern.compile(line.trim()));
+            }
+        }
+        return patterns;
+    }
+
+    /**
+     * Returns the overview of the run, or null when no pattern matched.
+     */
+    public static String resolve(Run<?, ?> run, String source) throws IOException {
+        List<Pattern> patterns = compile(source);
+        if (patterns.isEmpty()) {
+            return null;
+        }
+        File log = run.getLogFile();
+        String[] found;
+        if (log != null && log.isFile() && !log.getName().endsWith(".gz")) {
+            found = scan(log, run.getCharset(), patterns, DEFAULT_BYTE_BUDGET);
+        } else {
+            // compressed or external log storage, only the tail can be read
+            found = scan(run.getLog(FALLBACK_LINES), patterns);
+        }
+        return join(found);
+    }
+
+    /**
+     * Scans at most the last {@code budget} bytes of {@code file} and returns, for each pattern, the last line
+     * matching it or null. A line cut by the budget is not matched.
+     */
+    public static String[] scan(File file, Charset charset, List<Pattern> patterns, long budget)
+            throws IOException {
+        String[] found = new String[patterns.size()];
+        int remaining = found.length;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = Math.max(0, size - Math.min(budget, Integer.MAX_VALUE));
+            if (size == 0 || remaining == 0) {
+                return found;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, size - start);
+            byte[] line = new byte[MAX_LINE_BYTES];
+            int end = buffer.limit();
+            while (end >= 0 && remaining > 0) {
+                int lineStart = end - 1;
+                while (lineStart >= 0 && buffer.get(lineStart) != '\n') {
+                    lineStart--;
+                }
+                lineStart++;
+                if (lineStart == 0 && start > 0) {
+                    break;
+                }
+                if (end > lineStart) {
+                    remaining -= match(decode(buffer, lineStart, end, line, charset), patterns, found);
+                }
+                end = lineStart - 1;
+            }
+        }
+        return found;
+    }
+
+    static String[] scan(List<String> lines, List<Pattern> patterns) {
+        String[] found = new String[patterns.size()];
+        int remaining = found.length;
+        for (int i = lines.size() - 1; i >= 0 && remaining > 0; i--) {
+            remaining -= match(lines.get(i), patterns, found);
+        }
+        return found;
+    }
+
+    private static String decode(ByteBuffer buffer, int start, int end, byte[] line, Charset charset) {
+        int length = Math.min(end - start, line.length);
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(start);
+        slice.get(line, 0, length);
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        String text = new String(line, 0, length, charset);
+        return text.contains(ConsoleNote.PREAMBLE_STR) ? ConsoleNote.removeNotes(text) : text;
+    }
+
+    private static int match(String line, List<Pattern> patterns, String[] found) {
+        int matched = 0;
+        for (int i = 0; i < found.length; i++) {
+            if (found[i] == null && patterns.get(i).matcher(line).find()) {
+                found[i] = line;
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    static String join(String[] found) {
+        StringBuilder overview = new StringBuilder();
+        for (String line : found) {
+            if (line != null) {
+                if (overview.length() > 0) {
+                    overview.append('\n');
+                }
+                overview.append(line);
+            }
+        }
+        return overview.length() > 0 ? overview.toString() : null;
+    }
+}
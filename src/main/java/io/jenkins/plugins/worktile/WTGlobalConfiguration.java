@@ -9,7 +9,14 @@ import hudson.security.ACL;
 import hudson.util.FormValidation;
 import hudson.util.ListBoxModel;
 import io.jenkins.plugins.worktile.model.WTRestException;
+import io.jenkins.plugins.worktile.resolver.DeliveredAssociations;
+import io.jenkins.plugins.worktile.resolver.HistoryBackend;
+import io.jenkins.plugins.worktile.resolver.HistoryBackends;
 import io.jenkins.plugins.worktile.resolver.SecretResolver;
+import io.jenkins.plugins.worktile.resolver.WalkBudget;
+import io.jenkins.plugins.worktile.service.AutoReportRules;
+import io.jenkins.plugins.worktile.service.AutoReports;
+import io.jenkins.plugins.worktile.service.OutboundQueue;
 import io.jenkins.plugins.worktile.service.WTRestService;
 import jenkins.model.GlobalConfiguration;
 import jenkins.model.Jenkins;
@@ -33,6 +40,12 @@ import java.util.logging.Logger;
 public class WTGlobalConfiguration extends GlobalConfiguration {
     public static final String DEFAULT_ENDPOINT = "https://open.pingcode.com";
 
+    public static final long DEFAULT_MIRROR_CACHE_BUDGET_MB = 10240;
+
+    public static final int DEFAULT_PROGRESS_WINDOW_SECONDS = 10;
+
+    public static final int DEFAULT_DEDUP_WINDOW_SECONDS = 300;
+
     public static final String PINGCODE_GLOBAL_CONFIG_ID = "worktile-global-configuration";
 
     public static final Logger logger = Logger.getLogger(WTGlobalConfiguration.class.getName());
@@ -40,6 +53,28 @@ public class WTGlobalConfiguration extends GlobalConfiguration {
     private String endpoint;
     private String clientId;
     private String credentialsId;
+    private boolean incrementalResolution;
+    private boolean describeTagRange;
+    private int walkCommitLimit = WalkBudget.DEFAULT_MAX_COMMITS;
+    private int walkTimeLimit = WalkBudget.DEFAULT_MAX_SECONDS;
+    private String historyBackend;
+    private int agentConcurrentWalks = HistoryBackends.Settings.DEFAULT_CONCURRENT_WALKS;
+    private int agentWindowCacheMb;
+    private boolean mirrorCache;
+    private long mirrorCacheBudgetMb = DEFAULT_MIRROR_CACHE_BUDGET_MB;
+    private boolean skipDeliveredAssociations;
+    private int associationResendInterval = DeliveredAssociations.DEFAULT_RESEND_INTERVAL;
+    private String logLevel;
+    private boolean streamProgress;
+    private int progressWindowSeconds = DEFAULT_PROGRESS_WINDOW_SECONDS;
+    private boolean deduplicateRecords;
+    private int dedupWindowSeconds = DEFAULT_DEDUP_WINDOW_SECONDS;
+    private boolean autoReport;
+    private String autoReportIncludes;
+    private String autoReportExcludes;
+    private int autoReportBatchSize = AutoReports.DEFAULT_BATCH_SIZE;
+    private int outboundQueueLimit = OutboundQueue.DEFAULT_LIMIT;
+    private String outboundFolderWeights;
 
     public WTGlobalConfiguration() {
         load();
@@ -81,6 +116,218 @@ public class WTGlobalConfiguration extends GlobalConfiguration {
         this.endpoint = Util.fixEmptyAndTrim(endpoint);
     }
 
+    public boolean isIncrementalResolution() {
+        return incrementalResolution;
+    }
+
+    @DataBoundSetter
+    public void setIncrementalResolution(boolean incrementalResolution) {
+        this.incrementalResolution = incrementalResolution;
+    }
+
+    public boolean isDescribeTagRange() {
+        return describeTagRange;
+    }
+
+    @DataBoundSetter
+    public void setDescribeTagRange(boolean describeTagRange) {
+        this.describeTagRange = describeTagRange;
+    }
+
+    public int getWalkCommitLimit() {
+        return walkCommitLimit > 0 ? walkCommitLimit : WalkBudget.DEFAULT_MAX_COMMITS;
+    }
+
+    @DataBoundSetter
+    public void setWalkCommitLimit(int walkCommitLimit) {
+        this.walkCommitLimit = walkCommitLimit;
+    }
+
+    public int getWalkTimeLimit() {
+        return walkTimeLimit > 0 ? walkTimeLimit : WalkBudget.DEFAULT_MAX_SECONDS;
+    }
+
+    @DataBoundSetter
+    public void setWalkTimeLimit(int walkTimeLimit) {
+        this.walkTimeLimit = walkTimeLimit;
+    }
+
+    public String getHistoryBackend() {
+        return historyBackend == null ? HistoryBackend.Mode.AUTO.name() : historyBackend;
+    }
+
+    @DataBoundSetter
+    public void setHistoryBackend(String historyBackend) {
+        this.historyBackend = Util.fixEmptyAndTrim(historyBackend);
+    }
+
+    public int getAgentConcurrentWalks() {
+        return agentConcurrentWalks > 0 ? agentConcurrentWalks : HistoryBackends.Settings.DEFAULT_CONCURRENT_WALKS;
+    }
+
+    @DataBoundSetter
+    public void setAgentConcurrentWalks(int agentConcurrentWalks) {
+        this.agentConcurrentWalks = agentConcurrentWalks;
+    }
+
+    public int getAgentWindowCacheMb() {
+        return agentWindowCacheMb;
+    }
+
+    @DataBoundSetter
+    public void setAgentWindowCacheMb(int agentWindowCacheMb) {
+        this.agentWindowCacheMb = Math.max(agentWindowCacheMb, 0);
+    }
+
+    public boolean isMirrorCache() {
+        return mirrorCache;
+    }
+
+    @DataBoundSetter
+    public void setMirrorCache(boolean mirrorCache) {
+        this.mirrorCache = mirrorCache;
+    }
+
+    public long getMirrorCacheBudgetMb() {
+        return mirrorCacheBudgetMb > 0 ? mirrorCacheBudgetMb : DEFAULT_MIRROR_CACHE_BUDGET_MB;
+    }
+
+    @DataBoundSetter
+    public void setMirrorCacheBudgetMb(long mirrorCacheBudgetMb) {
+        this.mirrorCacheBudgetMb = mirrorCacheBudgetMb;
+    }
+
+    public boolean isSkipDeliveredAssociations() {
+        return skipDeliveredAssociations;
+    }
+
+    @DataBoundSetter
+    public void setSkipDeliveredAssociations(boolean skipDeliveredAssociations) {
+        this.skipDeliveredAssociations = skipDeliveredAssociations;
+    }
+
+    public int getAssociationResendInterval() {
+        return associationResendInterval > 0 ? associationResendInterval
+                : DeliveredAssociations.DEFAULT_RESEND_INTERVAL;
+    }
+
+    @DataBoundSetter
+    public void setAssociationResendInterval(int associationResendInterval) {
+        this.associationResendInterval = associationResendInterval;
+    }
+
+    public String getLogLevel() {
+        return logLevel == null ? WTLogger.Level.SUMMARY.name() : logLevel;
+    }
+
+    @DataBoundSetter
+    public void setLogLevel(String logLevel) {
+        this.logLevel = Util.fixEmptyAndTrim(logLevel);
+    }
+
+    public boolean isStreamProgress() {
+        return streamProgress;
+    }
+
+    @DataBoundSetter
+    public void setStreamProgress(boolean streamProgress) {
+        this.streamProgress = streamProgress;
+    }
+
+    public int getProgressWindowSeconds() {
+        return progressWindowSeconds > 0 ? progressWindowSeconds : DEFAULT_PROGRESS_WINDOW_SECONDS;
+    }
+
+    @DataBoundSetter
+    public void setProgressWindowSeconds(int progressWindowSeconds) {
+        this.progressWindowSeconds = progressWindowSeconds;
+    }
+
+    public boolean isDeduplicateRecords() {
+        return deduplicateRecords;
+    }
+
+    @DataBoundSetter
+    public void setDeduplicateRecords(boolean deduplicateRecords) {
+        this.deduplicateRecords = deduplicateRecords;
+    }
+
+    public int getDedupWindowSeconds() {
+        return dedupWindowSeconds > 0 ? dedupWindowSeconds : DEFAULT_DEDUP_WINDOW_SECONDS;
+    }
+
+    @DataBoundSetter
+    public void setDedupWindowSeconds(int dedupWindowSeconds) {
+        this.dedupWindowSeconds = dedupWindowSeconds;
+    }
+
+    public boolean isAutoReport() {
+        return autoReport;
+    }
+
+    @DataBoundSetter
+    public void setAutoReport(boolean autoReport) {
+        this.autoReport = autoReport;
+    }
+
+    public String getAutoReportIncludes() {
+        return autoReportIncludes;
+    }
+
+    @DataBoundSetter
+    public void setAutoReportIncludes(String autoReportIncludes) {
+        this.autoReportIncludes = Util.fixEmptyAndTrim(autoReportIncludes);
+    }
+
+    public String getAutoReportExcludes() {
+        return autoReportExcludes;
+    }
+
+    @DataBoundSetter
+    public void setAutoReportExcludes(String autoReportExcludes) {
+        this.autoReportExcludes = Util.fixEmptyAndTrim(autoReportExcludes);
+    }
+
+    public int getAutoReportBatchSize() {
+        return autoReportBatchSize > 0 ? autoReportBatchSize : AutoReports.DEFAULT_BATCH_SIZE;
+    }
+
+    @DataBoundSetter
+    public void setAutoReportBatchSize(int autoReportBatchSize) {
+        this.autoReportBatchSize = autoReportBatchSize;
+    }
+
+    public int getOutboundQueueLimit() {
+        return outboundQueueLimit > 0 ? outboundQueueLimit : OutboundQueue.DEFAULT_LIMIT;
+    }
+
+    @DataBoundSetter
+    public void setOutboundQueueLimit(int outboundQueueLimit) {
+        this.outboundQueueLimit = outboundQueueLimit;
+    }
+
+    public String getOutboundFolderWeights() {
+        return outboundFolderWeights;
+    }
+
+    @DataBoundSetter
+    public void setOutboundFolderWeights(String outboundFolderWeights) {
+        this.outboundFolderWeights = Util.fixEmptyAndTrim(outboundFolderWeights);
+    }
+
+    /**
+     * The records dropped by the outbound queue since Jenkins started, by lane.
+     */
+    public String getOutboundDrops() {
+        StringBuilder drops = new StringBuilder("Dropped since start:");
+        for (OutboundQueue.Priority priority : OutboundQueue.Priority.values()) {
+            drops.append(' ').append(priority.getDisplayName()).append(' ')
+                    .append(OutboundQueue.getDropped(priority));
+            drops.append(priority.ordinal() < OutboundQueue.Priority.values().length - 1 ? "," : ".");
+        }
+        return drops.toString();
+    }
+
     @Override
     public String getId() {
         return PINGCODE_GLOBAL_CONFIG_ID;
@@ -118,6 +365,30 @@ public class WTGlobalConfiguration extends GlobalConfiguration {
                 : FormValidation.error(Messages.WTGlobalConfig_CredentialsIdEmpty());
     }
 
+    @SuppressWarnings("unused")
+    public FormValidation doCheckAutoReportIncludes(@QueryParameter String value) {
+        String problem = AutoReportRules.validate(Util.fixEmptyAndTrim(value));
+        return problem == null ? FormValidation.ok() : FormValidation.error(problem);
+    }
+
+    @SuppressWarnings("unused")
+    public FormValidation doCheckAutoReportExcludes(@QueryParameter String value) {
+        return doCheckAutoReportIncludes(value);
+    }
+
+    @SuppressWarnings("unused")
+    public FormValidation doCheckOutboundFolderWeights(@QueryParameter String value) {
+        if (value != null) {
+            for (String line : value.split("\\r?\\n")) {
+                if (!line.trim().isEmpty() && OutboundQueue.weights(line).isEmpty()) {
+                    return FormValidation.error("'" + line.trim()
+                            + "' is not a folder, '=' and a positive weight, like team-a=2");
+                }
+            }
+        }
+        return FormValidation.ok();
+    }
+
     @POST
     @Restricted(DoNotUse.class)
     @SuppressWarnings("unused")
@@ -149,6 +420,24 @@ public class WTGlobalConfiguration extends GlobalConfiguration {
         }
     }
 
+    @SuppressWarnings("unused")
+    public ListBoxModel doFillHistoryBackendItems() {
+        ListBoxModel items = new ListBoxModel();
+        for (HistoryBackend.Mode mode : HistoryBackend.Mode.values()) {
+            items.add(mode.getDisplayName(), mode.name());
+        }
+        return items;
+    }
+
+    @SuppressWarnings("unused")
+    public ListBoxModel doFillLogLevelItems() {
+        ListBoxModel items = new ListBoxModel();
+        for (WTLogger.Level level : WTLogger.Level.values()) {
+            items.add(level.getDisplayName(), level.name());
+        }
+        return items;
+    }
+
     @SuppressWarnings("unused")
     public ListBoxModel doFillCredentialsIdItems(@QueryParameter final String endpoint,
             @QueryParameter final String clientId, @QueryParameter final String credentialsId) {
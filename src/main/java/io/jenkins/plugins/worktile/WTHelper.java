@@ -3,9 +3,12 @@ package io.jenkins.plugins.worktile;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import hudson.EnvVars;
+import hudson.Util;
 import hudson.model.Result;
 import hudson.model.Run;
 import hudson.model.TaskListener;
+import hudson.plugins.git.Revision;
+import hudson.plugins.git.util.BuildData;
 import org.apache.commons.lang3.StringUtils;
 
 import java.math.BigInteger;
@@ -13,16 +16,19 @@ import java.net.URL;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.logging.Logger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class WTHelper {
 
     public static final Logger logger = Logger.getLogger(WTHelper.class.getName());
 
+    private static final Map<Run<?, ?>, EnvSnapshot> envSnapshots = Collections.synchronizedMap(new WeakHashMap<>());
+
     public static boolean isURL(String url) {
         try {
             new URL(url).toURI();
@@ -61,6 +67,35 @@ public class WTHelper {
     }
 
     public static EnvVars safeEnvVars(Run<?, ?> run) {
+        return safeEnvVars(run, false);
+    }
+
+    /**
+     * Returns the environment snapshot of the run, computing it on first use and again after a checkout, which
+     * changes GIT_COMMIT and the like. Every environment contributor runs again when {@code refresh} is set. The
+     * snapshot is shared, callers must not modify it.
+     */
+    public static EnvVars safeEnvVars(Run<?, ?> run, boolean refresh) {
+        String checkouts = checkoutsOf(run);
+        if (!refresh) {
+            EnvSnapshot snapshot = envSnapshots.get(run);
+            if (snapshot != null && snapshot.checkouts.equals(checkouts)) {
+                return snapshot.env;
+            }
+        }
+        try {
+            EnvVars env = run.getEnvironment(TaskListener.NULL);
+            envSnapshots.put(run, new EnvSnapshot(env, checkouts));
+            return env;
+        } catch (Exception e) {
+            return new EnvVars();
+        }
+    }
+
+    /**
+     * Returns the current environment of the run, without taking or updating its snapshot.
+     */
+    public static EnvVars currentEnvVars(Run<?, ?> run) {
         try {
             return run.getEnvironment(TaskListener.NULL);
         } catch (Exception e) {
@@ -68,6 +103,26 @@ public class WTHelper {
         }
     }
 
+    private static String checkoutsOf(Run<?, ?> run) {
+        StringBuilder checkouts = new StringBuilder();
+        for (BuildData data : run.getActions(BuildData.class)) {
+            Revision revision = data.getLastBuiltRevision();
+            checkouts.append(data.getRemoteUrls()).append('@')
+                    .append(revision == null ? null : revision.getSha1String()).append(';');
+        }
+        return checkouts.toString();
+    }
+
+    private static final class EnvSnapshot {
+        private final EnvVars env;
+        private final String checkouts;
+
+        private EnvSnapshot(EnvVars env, String checkouts) {
+            this.env = env;
+            this.checkouts = checkouts;
+        }
+    }
+
     public static long toSafeTs(long time) {
         return Math.round(Math.floorDiv(time, 1000));
     }
@@ -76,24 +131,16 @@ public class WTHelper {
         if (overviewPattern == null || overviewPattern.equals("")) {
             return null;
         }
-        Pattern pattern = Pattern.compile(overviewPattern);
+        LiveOverviewAction captured = run.getAction(LiveOverviewAction.class);
+        if (captured != null && overviewPattern.equals(captured.getPattern())) {
+            String overview = captured.getOverview();
+            return overview != null ? overview : Util.fixEmpty(defaultSummary);
+        }
         try {
-            List<String> logs = run.getLog(999);
-            for (String log : logs) {
-                Matcher matcher = pattern.matcher(log);
-                if (matcher.find()) {
-                    return log;
-                }
-            }
-            if (defaultSummary != null && !defaultSummary.equals("")) {
-                return defaultSummary;
-            }
-            return null;
+            String overview = OverviewScanner.resolve(run, overviewPattern);
+            return overview != null ? overview : Util.fixEmpty(defaultSummary);
         } catch (Exception exception) {
-            if (defaultSummary != null && !defaultSummary.equals("")) {
-                return defaultSummary;
-            }
-            return null;
+            return Util.fixEmpty(defaultSummary);
         }
     }
 
@@ -1,20 +1,101 @@
 package io.jenkins.plugins.worktile;
 
 import hudson.model.TaskListener;
+import jenkins.model.Jenkins;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class WTLogger implements Serializable {
   private static final long serialVersionUID = 1L;
 
+  public static final int MAX_LISTED_ITEMS = 20;
+
   private final TaskListener listener;
+  private final Level level;
 
   public WTLogger(TaskListener listener) {
+    this(listener, null);
+  }
+
+  /**
+   * @param level the level of this step, or null for the global one
+   */
+  public WTLogger(TaskListener listener, Level level) {
     this.listener = listener;
+    this.level = level != null ? level : globalLevel();
+  }
+
+  private static Level globalLevel() {
+    // callbacks also log from agents, where only the level they were shipped with is known
+    if (Jenkins.getInstanceOrNull() == null) {
+      return Level.SUMMARY;
+    }
+    return Level.of(WTGlobalConfiguration.get().getLogLevel(), Level.SUMMARY);
+  }
+
+  public TaskListener getListener() {
+    return listener;
+  }
+
+  public Level getLevel() {
+    return level;
+  }
+
+  public boolean isDebug() {
+    return level == Level.DEBUG;
   }
 
   public void info(String message) {
-    this.listener.getLogger().println("PINGCODE - [INFO] " + message);
+    if (level != Level.QUIET) {
+      this.listener.getLogger().println("PINGCODE - [INFO] " + message);
+    }
+  }
+
+  public void debug(String message) {
+    if (level == Level.DEBUG) {
+      this.listener.getLogger().println("PINGCODE - [DEBUG] " + message);
+    }
+  }
+
+  /**
+   * Logs the number of items and, in summary mode, at most {@link #MAX_LISTED_ITEMS} of them.
+   */
+  public void items(String message, Collection<String> items) {
+    if (level == Level.QUIET) {
+      return;
+    }
+    int limit = level == Level.DEBUG ? items.size() : Math.min(items.size(), MAX_LISTED_ITEMS);
+    List<String> listed = new ArrayList<>(limit);
+    Iterator<String> iterator = items.iterator();
+    while (listed.size() < limit && iterator.hasNext()) {
+      listed.add(iterator.next());
+    }
+    StringBuilder line = new StringBuilder(message).append(": ").append(items.size());
+    if (!listed.isEmpty()) {
+      line.append(" [").append(String.join(", ", listed));
+      if (items.size() > limit) {
+        line.append(", ... ").append(items.size() - limit).append(" more");
+      }
+      line.append(']');
+    }
+    info(line.toString());
+  }
+
+  public void items(String message, String[] items) {
+    items(message, items == null ? Arrays.<String>asList() : Arrays.asList(items));
+  }
+
+  /**
+   * Logs how long the work started at {@code startNanos} (from {@link System#nanoTime()}) took.
+   */
+  public void timing(String message, long startNanos) {
+    info(message + " in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + " ms");
   }
 
   public void error(String message) {
@@ -24,4 +105,27 @@ public class WTLogger implements Serializable {
     this.listener.getLogger().println(
         "PINGCODE - [ERROR] please issue this problem at " + "https://github.com/jenkinsci/pingcode-plugin/issues");
   }
+
+  public enum Level {
+    QUIET("Quiet, errors only"), SUMMARY("Summary, counts and timings"), DEBUG("Debug, every item and payload");
+
+    private final String displayName;
+
+    Level(String displayName) {
+      this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+      return displayName;
+    }
+
+    public static Level of(String value, Level fallback) {
+      for (Level level : values()) {
+        if (level.name().equalsIgnoreCase(value)) {
+          return level;
+        }
+      }
+      return fallback;
+    }
+  }
 }
@@ -0,0 +1,66 @@
+package io.jenkins.plugins.worktile;
+
+import com.cloudbees.hudson.plugins.folder.AbstractFolder;
+import com.cloudbees.hudson.plugins.folder.AbstractFolderProperty;
+import com.cloudbees.hudson.plugins.folder.AbstractFolderPropertyDescriptor;
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.Descriptor.FormException;
+import hudson.util.FormValidation;
+import io.jenkins.plugins.worktile.resolver.IdentifierPatterns;
+import net.sf.json.JSONObject;
+import org.jetbrains.annotations.NotNull;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.StaplerRequest;
+
+public class WorkItemPatternFolderProperty extends AbstractFolderProperty<AbstractFolder<?>> {
+
+    private final String pattern;
+
+    @DataBoundConstructor
+    public WorkItemPatternFolderProperty(String pattern) {
+        this.pattern = Util.fixEmptyAndTrim(pattern);
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    static FormValidation check(String value) {
+        String source = Util.fixEmptyAndTrim(value);
+        String problem = source == null ? null : IdentifierPatterns.validate(source);
+        return problem == null ? FormValidation.ok() : FormValidation.error(problem);
+    }
+
+    static void requireValid(String source) throws FormException {
+        String problem = source == null ? null : IdentifierPatterns.validate(source);
+        if (problem != null) {
+            throw new FormException("Invalid work item identifier pattern: " + problem, "pattern");
+        }
+    }
+
+    @Extension
+    public static class DescriptorImpl extends AbstractFolderPropertyDescriptor {
+
+        @NotNull
+        @Override
+        public String getDisplayName() {
+            return "PingCode work item identifier pattern";
+        }
+
+        @Override
+        public AbstractFolderProperty<?> newInstance(StaplerRequest request, @NotNull JSONObject formData)
+                throws FormException {
+            AbstractFolderProperty<?> property = super.newInstance(request, formData);
+            if (property instanceof WorkItemPatternFolderProperty) {
+                requireValid(((WorkItemPatternFolderProperty) property).getPattern());
+            }
+            return property;
+        }
+
+        public FormValidation doCheckPattern(@QueryParameter String value) {
+            return check(value);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package io.jenkins.plugins.worktile;
+
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.Descriptor.FormException;
+import hudson.model.Job;
+import hudson.model.JobProperty;
+import hudson.model.JobPropertyDescriptor;
+import hudson.util.FormValidation;
+import net.sf.json.JSONObject;
+import org.jetbrains.annotations.NotNull;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.StaplerRequest;
+
+public class WorkItemPatternProperty extends JobProperty<Job<?, ?>> {
+
+    private final String pattern;
+
+    @DataBoundConstructor
+    public WorkItemPatternProperty(String pattern) {
+        this.pattern = Util.fixEmptyAndTrim(pattern);
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    @Extension
+    public static class DescriptorImpl extends JobPropertyDescriptor {
+
+        @NotNull
+        @Override
+        public String getDisplayName() {
+            return "PingCode work item identifier pattern";
+        }
+
+        @Override
+        public JobProperty<?> newInstance(StaplerRequest request, JSONObject formData) throws FormException {
+            JobProperty<?> property = super.newInstance(request, formData);
+            if (property instanceof WorkItemPatternProperty) {
+                WorkItemPatternFolderProperty.requireValid(((WorkItemPatternProperty) property).getPattern());
+            }
+            return property;
+        }
+
+        public FormValidation doCheckPattern(@QueryParameter String value) {
+            return WorkItemPatternFolderProperty.check(value);
+        }
+    }
+}
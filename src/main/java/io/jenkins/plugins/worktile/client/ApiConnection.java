@@ -9,10 +9,24 @@ import okhttp3.*;
 import okhttp3.Request.Builder;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Logger;
 
 public class ApiConnection {
+  /**
+   * Calls to one host running at once. The outbound queue caps the async sends below it, leaving the rest to the
+   * token and environment lookups made from builds.
+   */
+  public static final int MAX_REQUESTS_PER_HOST = 16;
+
+  /** Shared by every connection, so they share one dispatcher pool and one connection pool. */
+  private static final OkHttpClient sharedClient = newSharedClient();
+
   private final transient String accessToken;
   private final Gson gson =
       new GsonBuilder()
@@ -30,8 +44,18 @@ public class ApiConnection {
     this.httpClient = client;
   }
 
+  public ApiConnection(String accessToken) {
+    this(accessToken, sharedClient);
+  }
+
   public ApiConnection() {
-    this(null, new OkHttpClient());
+    this(null, sharedClient);
+  }
+
+  private static OkHttpClient newSharedClient() {
+    Dispatcher dispatcher = new Dispatcher();
+    dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+    return new OkHttpClient.Builder().dispatcher(dispatcher).build();
   }
 
   public String executeGet(String url) throws IOException, WTRestException {
@@ -40,17 +64,92 @@ public class ApiConnection {
   }
 
   private String execute(Builder requestBuilder) throws IOException, WTRestException {
+    try (Response response = await(newCall(requestBuilder))) {
+      return read(response);
+    }
+  }
+
+  /**
+   * Sends the request without blocking the calling thread. Cancelling the returned future cancels the call.
+   */
+  private CompletableFuture<String> executeAsync(Builder requestBuilder) {
+    Call call = newCall(requestBuilder);
+    CompletableFuture<Response> sent = enqueue(call);
+    CompletableFuture<String> result =
+        sent.thenApply(
+            response -> {
+              try (Response closing = response) {
+                return read(closing);
+              } catch (IOException | WTRestException e) {
+                throw new CompletionException(e);
+              }
+            });
+    result.whenComplete(
+        (body, error) -> {
+          if (error instanceof CancellationException) {
+            call.cancel();
+            sent.thenAccept(Response::close);
+          }
+        });
+    return result;
+  }
+
+  private Call newCall(Builder requestBuilder) {
     if (accessToken != null) {
       requestBuilder.addHeader("Authorization", "Bearer " + accessToken);
     }
     requestBuilder.addHeader("Content-Type", "application/json");
-    try (Response response = this.httpClient.newCall(requestBuilder.build()).execute()) {
-      if (!response.isSuccessful()) {
-        WTErrorEntity error =
-            gson.fromJson(Objects.requireNonNull(response.body()).string(), WTErrorEntity.class);
-        throw new WTRestException(error.getCode(), error.getMessage());
+    return this.httpClient.newCall(requestBuilder.build());
+  }
+
+  private String read(Response response) throws IOException, WTRestException {
+    if (!response.isSuccessful()) {
+      WTErrorEntity error =
+          gson.fromJson(Objects.requireNonNull(response.body()).string(), WTErrorEntity.class);
+      throw new WTRestException(error.getCode(), error.getMessage());
+    }
+    return Objects.requireNonNull(response.body()).string();
+  }
+
+  private static CompletableFuture<Response> enqueue(Call call) {
+    CompletableFuture<Response> future = new CompletableFuture<>();
+    call.enqueue(
+        new Callback() {
+          @Override
+          public void onFailure(Call call, IOException e) {
+            future.completeExceptionally(e);
+          }
+
+          @Override
+          public void onResponse(Call call, Response response) {
+            if (!future.complete(response)) {
+              response.close();
+            }
+          }
+        });
+    return future;
+  }
+
+  /**
+   * Waits for the call on the calling thread's behalf. An interrupt, e.g. from an aborted build, cancels the
+   * call and releases its connection instead of waiting for the server.
+   */
+  private static Response await(Call call) throws IOException {
+    CompletableFuture<Response> future = enqueue(call);
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      call.cancel();
+      future.cancel(false);
+      // closes a response that arrived just before the cancel
+      future.thenAccept(Response::close);
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("request to " + call.request().url() + " was aborted");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
       }
-      return Objects.requireNonNull(response.body()).string();
+      throw new IOException(e.getCause());
     }
   }
 
@@ -62,6 +161,14 @@ public class ApiConnection {
     return execute(requestBuilder);
   }
 
+  public CompletableFuture<String> executePostAsync(String url, Object body) {
+    MediaType JSONMedia = MediaType.get("application/json; charset=utf-8");
+    String json = gson.toJson(body);
+    RequestBody reqBody = RequestBody.create(json, JSONMedia);
+    Builder requestBuilder = new Request.Builder().url(url).post(reqBody);
+    return executeAsync(requestBuilder);
+  }
+
   public <TBody> String executeDelete(String url, Class<TBody> body)
       throws IOException, WTRestException {
     MediaType JSONMedia = MediaType.get("application/json; charset=utf-8");
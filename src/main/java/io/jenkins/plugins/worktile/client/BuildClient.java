@@ -4,7 +4,10 @@ import io.jenkins.plugins.worktile.model.WTBuildEntity;
 import io.jenkins.plugins.worktile.model.WTRestException;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 public interface BuildClient {
   Object createBuild(WTBuildEntity entity) throws IOException, WTRestException;
+
+  CompletableFuture<String> createBuildAsync(WTBuildEntity entity);
 }
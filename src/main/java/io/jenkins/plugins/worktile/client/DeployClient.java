@@ -4,7 +4,10 @@ import io.jenkins.plugins.worktile.model.WTDeployEntity;
 import io.jenkins.plugins.worktile.model.WTRestException;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 public interface DeployClient {
   Object createDeploy(WTDeployEntity entity) throws IOException, WTRestException;
+
+  CompletableFuture<String> createDeployAsync(WTDeployEntity entity);
 }
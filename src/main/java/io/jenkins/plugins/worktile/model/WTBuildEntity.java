@@ -7,9 +7,15 @@ import hudson.FilePath;
 import hudson.model.AbstractBuild;
 import hudson.model.Run;
 import hudson.model.TaskListener;
+import io.jenkins.plugins.worktile.WTGlobalConfiguration;
 import io.jenkins.plugins.worktile.WTHelper;
+import io.jenkins.plugins.worktile.WTLogger;
+import io.jenkins.plugins.worktile.resolver.DeliveredAssociations;
+import io.jenkins.plugins.worktile.resolver.ResolutionMark;
 import io.jenkins.plugins.worktile.resolver.WorkItemResolver;
 
+import java.util.List;
+
 public class WTBuildEntity {
     public final String provider = "jenkins";
     public String name;
@@ -22,31 +28,32 @@ public class WTBuildEntity {
     public long startAt;
     public long endAt;
     public long duration;
+    public transient List<ResolutionMark> marks;
+    public transient DeliveredAssociations.Delivery associations;
+    public transient String runId;
 
     public static WTBuildEntity from(Run<?, ?> run, FilePath workspace, TaskListener listener, String pattern,
-            String defaultSummary, String resultURL, String specifiedWorkItems) {
+            String defaultSummary, String resultURL, String specifiedWorkItems) throws InterruptedException {
         return WTBuildEntity.from(run, workspace, listener, null, pattern, defaultSummary, resultURL, specifiedWorkItems);
     }
 
     public static WTBuildEntity from(Run<?, ?> run, FilePath workspace, TaskListener listener, String status,
-            String pattern, String defaultSummary, String resultURL, String specifiedWorkItems) {
-        WTBuildEntity entity = new WTBuildEntity();
+            String pattern, String defaultSummary, String resultURL, String specifiedWorkItems)
+            throws InterruptedException {
+        return WTBuildEntity.from(run, WTHelper.safeEnvVars(run), workspace, new WTLogger(listener), status,
+                pattern, defaultSummary, resultURL, specifiedWorkItems);
+    }
+
+    public static WTBuildEntity from(Run<?, ?> run, EnvVars vars, FilePath workspace, WTLogger logger,
+            String status, String pattern, String defaultSummary, String resultURL, String specifiedWorkItems)
+            throws InterruptedException {
         if (status == null) {
             String autoStatus = WTHelper.statusOfRun(run);
             status = autoStatus.equals("success") ? Status.Success.getValue() : Status.Failure.getValue();
         }
 
-        EnvVars vars = WTHelper.safeEnvVars(run);
-
-        entity.status = status;
-        String fullName = run.getFullDisplayName();
-        int index = fullName.lastIndexOf("#");
-        entity.name = fullName.substring(0, index).trim();
-        entity.identifier = run.getId();
+        WTBuildEntity entity = of(run, status);
         entity.resultOverview = WTHelper.resolveOverview(run, pattern, defaultSummary);
-        entity.startAt = WTHelper.toSafeTs(run.getStartTimeInMillis());
-        entity.endAt = WTHelper.toSafeTs(System.currentTimeMillis());
-        entity.duration = Math.subtractExact(entity.endAt, entity.startAt);
 
         if (run instanceof AbstractBuild<?, ?>) {
             String defaultResultUrl = ((AbstractBuild<?, ?>) run).getProject() //
@@ -67,20 +74,53 @@ public class WTBuildEntity {
             entity.workItemIdentifiers = vars.expand(specifiedWorkItems).split(",");
         }
         else {
-            entity.workItemIdentifiers = new WorkItemResolver(run, workspace, listener) //
-                .resolve() //
-                .toArray(new String[0]);
+            WTGlobalConfiguration config = WTGlobalConfiguration.get();
+            WorkItemResolver resolver = new WorkItemResolver(run, vars, workspace, logger, false);
+            resolver.setTrackAssociations(config.isSkipDeliveredAssociations());
+            entity.workItemIdentifiers = resolver.resolve().toArray();
+            entity.marks = resolver.getMarks();
+            entity.associations = resolver.selectUndelivered(config.getAssociationResendInterval());
+            if (entity.associations != null) {
+                entity.workItemIdentifiers = entity.associations.getIdentifiers().toArray(new String[0]);
+            }
         }
 
         return entity;
     }
 
+    /**
+     * A record of a streamed pipeline, {@code overview} describing the stage it reached or how it ended.
+     */
+    public static WTBuildEntity progress(WorkflowRun run, String status, String overview,
+            String[] workItemIdentifiers) {
+        WTBuildEntity entity = of(run, status);
+        entity.resultOverview = overview;
+        entity.jobUrl = run.getAbsoluteUrl();
+        entity.resultUrl = run.getAbsoluteUrl() + "console";
+        entity.workItemIdentifiers = workItemIdentifiers;
+        return entity;
+    }
+
+    private static WTBuildEntity of(Run<?, ?> run, String status) {
+        WTBuildEntity entity = new WTBuildEntity();
+        entity.status = status;
+        String fullName = run.getFullDisplayName();
+        int index = fullName.lastIndexOf("#");
+        entity.name = fullName.substring(0, index).trim();
+        entity.identifier = run.getId();
+        entity.runId = run.getExternalizableId();
+        entity.startAt = WTHelper.toSafeTs(run.getStartTimeInMillis());
+        entity.endAt = WTHelper.toSafeTs(System.currentTimeMillis());
+        entity.duration = Math.subtractExact(entity.endAt, entity.startAt);
+        return entity;
+    }
+
     public String toString() {
         return WTHelper.prettyJSON(this);
     }
 
     public enum Status {
-        Success("success"), Failure("failure");
+        Success("success"), Failure("failure"), InProgress("in_progress");
 
         private final String value;
 
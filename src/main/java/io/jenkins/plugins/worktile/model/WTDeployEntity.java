@@ -5,8 +5,14 @@ import hudson.FilePath;
 import hudson.model.Run;
 import hudson.model.TaskListener;
 import io.jenkins.plugins.worktile.WTHelper;
+import io.jenkins.plugins.worktile.WTLogger;
+import io.jenkins.plugins.worktile.resolver.ResolutionMark;
 import io.jenkins.plugins.worktile.resolver.WorkItemResolver;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 public class WTDeployEntity {
     public String releaseName;
     public String status;
@@ -16,14 +22,36 @@ public class WTDeployEntity {
     public long endAt;
     public long duration;
     public String[] workItemIdentifiers;
+    public transient List<ResolutionMark> marks;
+    public transient String runId;
+    public transient String environmentName;
 
     public static WTDeployEntity from(Run<?, ?> run, FilePath workspace, TaskListener listener, String releaseName,
-            String releaseUrl, String specifiedWorkItems, String envId, boolean isTagged) {
+            String releaseUrl, String specifiedWorkItems, String envId, boolean isTagged) throws InterruptedException {
         return WTDeployEntity.from(run, workspace, listener, null, releaseName, releaseUrl, specifiedWorkItems, envId, isTagged);
     }
 
+    public static WTDeployEntity from(Run<?, ?> run, FilePath workspace, TaskListener listener, String releaseName,
+            String releaseUrl, String specifiedWorkItems, boolean isTagged, Collection<String> environmentNames)
+            throws InterruptedException {
+        return WTDeployEntity.from(run, WTHelper.safeEnvVars(run), workspace, new WTLogger(listener), null,
+                releaseName, releaseUrl, specifiedWorkItems, null, isTagged, environmentNames);
+    }
+
     public static WTDeployEntity from(Run<?, ?> run, FilePath workspace, TaskListener listener, String status,
-            String releaseName, String releaseUrl, String specifiedWorkItems, String envId, boolean isTagged) {
+            String releaseName, String releaseUrl, String specifiedWorkItems, String envId, boolean isTagged)
+            throws InterruptedException {
+        return WTDeployEntity.from(run, WTHelper.safeEnvVars(run), workspace, new WTLogger(listener), status,
+                releaseName, releaseUrl, specifiedWorkItems, envId, isTagged, null);
+    }
+
+    /**
+     * @param environmentNames the environments the record is for, the work items are resolved from the commit
+     *                         their deploy records were last delivered at
+     */
+    public static WTDeployEntity from(Run<?, ?> run, EnvVars vars, FilePath workspace, WTLogger logger,
+            String status, String releaseName, String releaseUrl, String specifiedWorkItems, String envId,
+            boolean isTagged, Collection<String> environmentNames) throws InterruptedException {
         WTDeployEntity entity = new WTDeployEntity();
 
         if (status == null) {
@@ -31,11 +59,11 @@ public class WTDeployEntity {
             status = autoStatus.equals("success") ? Status.Deployed.getValue() : Status.NotDeployed.getValue();
         }
 
-        EnvVars vars = WTHelper.safeEnvVars(run);
         entity.releaseName = vars.expand(releaseName);
         entity.releaseUrl = vars.expand(releaseUrl);
         entity.envId = envId;
         entity.status = status;
+        entity.runId = run.getExternalizableId();
         entity.startAt = WTHelper.toSafeTs(run.getStartTimeInMillis());
         entity.endAt = WTHelper.toSafeTs(System.currentTimeMillis());
         entity.duration = Math.subtractExact(entity.endAt, entity.startAt);
@@ -44,14 +72,40 @@ public class WTDeployEntity {
             entity.workItemIdentifiers = vars.expand(specifiedWorkItems).split(",");
         }
         else {
-            entity.workItemIdentifiers = new WorkItemResolver(run, workspace, listener, isTagged)//
-                .resolve()//
-                .toArray(new String[0]);
+            WorkItemResolver resolver = new WorkItemResolver(run, vars, workspace, logger, isTagged);
+            List<String> scopes = new ArrayList<>();
+            if (environmentNames != null) {
+                for (String name : environmentNames) {
+                    scopes.add(ResolutionMark.deployScope(name));
+                }
+            }
+            resolver.setMarkScopes(scopes);
+            entity.workItemIdentifiers = resolver.resolve().toArray();
+            entity.marks = resolver.getMarks();
         }
 
         return entity;
     }
 
+    /**
+     * Returns a copy of this record for another environment, carrying the marks of that environment only.
+     */
+    public WTDeployEntity forEnvironment(String envId, String environmentName) {
+        WTDeployEntity entity = new WTDeployEntity();
+        entity.releaseName = releaseName;
+        entity.status = status;
+        entity.envId = envId;
+        entity.releaseUrl = releaseUrl;
+        entity.startAt = startAt;
+        entity.endAt = endAt;
+        entity.duration = duration;
+        entity.workItemIdentifiers = workItemIdentifiers;
+        entity.marks = ResolutionMark.inScope(marks, ResolutionMark.deployScope(environmentName));
+        entity.runId = runId;
+        entity.environmentName = environmentName;
+        return entity;
+    }
+
     public String toString() {
         return WTHelper.prettyJSON(this);
     }
@@ -0,0 +1,114 @@
+package io.jenkins.plugins.worktile.pipeline;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import hudson.FilePath;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.worktile.WTHelper;
+import io.jenkins.plugins.worktile.WTLogger;
+import io.jenkins.plugins.worktile.model.WTBuildEntity;
+import io.jenkins.plugins.worktile.service.SharedReports;
+import io.jenkins.plugins.worktile.service.WTRestService;
+
+/**
+ * Build record step shared by {@code pingcodeBuildRecord} and the legacy {@code worktileBuildRecord}. Both send
+ * through {@link SharedReports}, so the two called alike at the same point of a run send one record.
+ */
+public abstract class AbstractBuildStep extends Step implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @DataBoundSetter
+    private String overviewPattern;
+
+    @DataBoundSetter
+    private String defaultSummary;
+
+    @DataBoundSetter
+    private boolean failOnError;
+
+    @DataBoundSetter
+    private String status;
+
+    @DataBoundSetter
+    private String resultURL;
+
+    @DataBoundSetter
+    private String specifiedWorkItems;
+
+    @DataBoundSetter
+    private boolean refreshEnvironment;
+
+    @DataBoundSetter
+    private String logLevel;
+
+    /**
+     * The name the console messages of this step use for PingCode.
+     */
+    protected abstract String getProduct();
+
+    protected boolean isWait() {
+        return true;
+    }
+
+    @Override
+    public StepExecution start(StepContext context) throws Exception {
+        return new BuildStepExecution(context, this);
+    }
+
+    public static class BuildStepExecution extends AsyncReportExecution {
+        private static final long serialVersionUID = 1L;
+
+        private final AbstractBuildStep step;
+
+        public BuildStepExecution(StepContext context, AbstractBuildStep step) {
+            super(context);
+            this.step = step;
+        }
+
+        @Override
+        protected boolean isWait() {
+            return step.isWait();
+        }
+
+        @Override
+        protected CompletableFuture<?> report() throws Exception {
+            WorkflowRun run = getContext().get(WorkflowRun.class);
+            TaskListener listener = getContext().get(TaskListener.class);
+            FilePath workspace = getContext().get(FilePath.class);
+
+            WTLogger logger = new WTLogger(listener, WTLogger.Level.of(step.logLevel, null));
+            String product = step.getProduct();
+            WTRestService service = new WTRestService();
+            List<?> record = SharedReports.key("build-step",
+                    step.status != null ? step.status : String.valueOf(run.getResult()),
+                    workspace == null ? null : workspace.getRemote(), step.overviewPattern, step.defaultSummary,
+                    step.resultURL, step.specifiedWorkItems, step.refreshEnvironment);
+            CompletableFuture<Boolean> delivery = SharedReports.share(run, record, logger,
+                    "Reuse the build record already sent for this run",
+                    () -> stage(() -> WTBuildEntity.from(run, //
+                            WTHelper.safeEnvVars(run, step.refreshEnvironment), //
+                            workspace, //
+                            logger, //
+                            step.status, //
+                            step.overviewPattern, //
+                            step.defaultSummary, //
+                            step.resultURL, //
+                            step.specifiedWorkItems)).thenCompose(entity -> stage(service::authorize)
+                                    .thenCompose(api -> {
+                                        logger.items("Send work items to " + product, entity.workItemIdentifiers);
+                                        logger.debug("Will send data to " + product + ": " + entity);
+                                        return track(service.createBuildAsync(api, entity));
+                                    })));
+            return settle(delivery, logger, step.failOnError, "Create " + product + " build record successfully.",
+                    "build record").thenApply(delivered -> true);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package io.jenkins.plugins.worktile.pipeline;
+
+import hudson.AbortException;
+import hudson.FilePath;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.worktile.WTHelper;
+import io.jenkins.plugins.worktile.WTLogger;
+import io.jenkins.plugins.worktile.model.WTDeployEntity;
+import io.jenkins.plugins.worktile.model.WTEnvironmentEntity;
+import io.jenkins.plugins.worktile.model.WTEnvironmentSchema;
+import io.jenkins.plugins.worktile.model.WTRestException;
+import io.jenkins.plugins.worktile.service.SharedReports;
+import io.jenkins.plugins.worktile.service.WTRestApiService;
+import io.jenkins.plugins.worktile.service.WTRestService;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Deploy record step shared by {@code pingcodeDeployRecord} and the legacy {@code worktileDeployRecord}. The work
+ * items and the record of each environment go through {@link SharedReports}, so the two called alike at the same
+ * point of a run resolve and send once.
+ */
+public abstract class AbstractDeployStep extends Step implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String releaseName;
+
+    private final String environmentName;
+
+    @DataBoundSetter
+    private String releaseURL;
+
+    @DataBoundSetter
+    private String specifiedWorkItems;
+
+    @DataBoundSetter
+    private boolean failOnError;
+
+    @DataBoundSetter
+    private String status;
+
+    @DataBoundSetter
+    private boolean isTagged;
+
+    @DataBoundSetter
+    private boolean refreshEnvironment;
+
+    @DataBoundSetter
+    private String logLevel;
+
+    protected AbstractDeployStep(String releaseName, String environmentName) {
+        this.releaseName = releaseName;
+        this.environmentName = environmentName;
+    }
+
+    /**
+     * The name the console messages of this step use for PingCode.
+     */
+    protected abstract String getProduct();
+
+    protected boolean isWait() {
+        return true;
+    }
+
+    /**
+     * The environments besides {@code environmentName}, or null when the step reports to that one only.
+     */
+    protected List<String> getMoreEnvironments() {
+        return null;
+    }
+
+    @Override
+    public StepExecution start(StepContext context) throws Exception {
+        return new DeployStepExecution(context, this);
+    }
+
+    List<String> environments() {
+        Set<String> names = new LinkedHashSet<>();
+        if (WTHelper.isNotBlank(environmentName)) {
+            names.add(environmentName.trim());
+        }
+        List<String> more = getMoreEnvironments();
+        if (more != null) {
+            for (String name : more) {
+                if (WTHelper.isNotBlank(name)) {
+                    names.add(name.trim());
+                }
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    public static class DeployStepExecution extends AsyncReportExecution {
+        private static final long serialVersionUID = 1L;
+
+        private final AbstractDeployStep step;
+
+        public DeployStepExecution(StepContext context, AbstractDeployStep step) {
+            super(context);
+            this.step = step;
+        }
+
+        @Override
+        protected boolean isWait() {
+            return step.isWait();
+        }
+
+        /**
+         * Resolves the work items once, then looks up and sends to every environment in parallel. With more
+         * environments the result is whether each environment got its record.
+         */
+        @Override
+        protected CompletableFuture<?> report() throws Exception {
+            WorkflowRun run = getContext().get(WorkflowRun.class);
+            FilePath workspace = getContext().get(FilePath.class);
+            TaskListener listener = getContext().get(TaskListener.class);
+
+            List<String> names = this.step.environments();
+            if (names.isEmpty()) {
+                throw new AbortException(this.step.getMoreEnvironments() == null ? "environmentName is required"
+                        : "environmentName or environmentNames is required");
+            }
+            WTLogger wtLogger = new WTLogger(listener, WTLogger.Level.of(step.logLevel, null));
+            String product = this.step.getProduct();
+            WTRestService service = new WTRestService();
+            List<?> record = SharedReports.key("deploy-step",
+                    step.status != null ? step.status : String.valueOf(run.getResult()),
+                    workspace == null ? null : workspace.getRemote(), step.releaseName, step.releaseURL,
+                    step.specifiedWorkItems, step.isTagged, step.refreshEnvironment, names);
+            CompletableFuture<WTDeployEntity> resolved = SharedReports.share(run, record, wtLogger,
+                    "Reuse the work items already resolved for this run",
+                    () -> stage(() -> WTDeployEntity.from(run, WTHelper.safeEnvVars(run, step.refreshEnvironment),
+                            workspace, wtLogger, step.status, step.releaseName, step.releaseURL,
+                            step.specifiedWorkItems, null, step.isTagged, names)));
+            return resolved.thenCompose(entity -> {
+                wtLogger.items("Send work items to " + product, entity.workItemIdentifiers);
+                CompletableFuture<WTRestApiService> authorized = stage(service::authorize);
+                Map<String, CompletableFuture<Boolean>> results = new LinkedHashMap<>();
+                for (String name : names) {
+                    // an environment that failed a step with failOnError is not reused by a step without it
+                    CompletableFuture<Boolean> delivery = SharedReports.share(run,
+                            SharedReports.key(record, name, step.failOnError), wtLogger,
+                            "Reuse the deploy record of " + name + " already sent for this run",
+                            () -> deliver(service, authorized, entity, name, wtLogger));
+                    results.put(name, settle(delivery, wtLogger, step.failOnError,
+                            "Create " + product + " deploy record of " + name + " successfully.",
+                            "deploy record of " + name));
+                }
+                return CompletableFuture.allOf(results.values().toArray(new CompletableFuture<?>[0]))
+                        .thenApply(ignored -> step.getMoreEnvironments() == null ? (Object) true
+                                : collect(results));
+            });
+        }
+
+        private CompletableFuture<Boolean> deliver(WTRestService service,
+                CompletableFuture<WTRestApiService> authorized, WTDeployEntity entity, String name,
+                WTLogger wtLogger) {
+            return authorized.thenCompose(api -> stage(() -> environment(api, wtLogger, name)).thenCompose(envId -> {
+                WTDeployEntity record = entity.forEnvironment(envId, name);
+                wtLogger.debug("Will send data to " + step.getProduct() + ": " + record);
+                return track(service.createDeployAsync(api, record));
+            }));
+        }
+
+        private static Map<String, Boolean> collect(Map<String, CompletableFuture<Boolean>> results) {
+            Map<String, Boolean> delivered = new LinkedHashMap<>();
+            for (Map.Entry<String, CompletableFuture<Boolean>> result : results.entrySet()) {
+                delivered.put(result.getKey(), result.getValue().join());
+            }
+            return delivered;
+        }
+
+        private String environment(WTRestApiService api, WTLogger wtLogger, String name) throws AbortException {
+            try {
+                return handleEnvName(name, api);
+            } catch (Exception exception) {
+                wtLogger.error(exception.getMessage());
+                if (exception instanceof WTRestException) {
+                    if (!((WTRestException) exception).getCode().equals("100105") && this.step.failOnError) {
+                        throw new AbortException(exception.getMessage());
+                    }
+                } else if (this.step.failOnError) {
+                    throw new AbortException(exception.getMessage());
+                }
+                return null;
+            }
+        }
+
+        public String handleEnvName(String name, WTRestApiService api) throws IOException, WTRestException {
+            WTEnvironmentSchema schema = api.getEnvironmentByName(name);
+            if (schema == null) {
+                schema = api.createEnvironment(new WTEnvironmentEntity(name));
+            }
+            return schema.id;
+        }
+    }
+}
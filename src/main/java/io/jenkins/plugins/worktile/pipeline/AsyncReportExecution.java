@@ -0,0 +1,143 @@
+package io.jenkins.plugins.worktile.pipeline;
+
+import hudson.AbortException;
+import hudson.model.Run;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import io.jenkins.plugins.worktile.WTLogger;
+import io.jenkins.plugins.worktile.service.RecordDeduplicator;
+import io.jenkins.plugins.worktile.service.ReportExecutor;
+import jenkins.model.Jenkins;
+import org.acegisecurity.Authentication;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+
+import javax.annotation.Nonnull;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs a report as a chain of stages on the shared report threads and completes the step from the end of the
+ * chain, so no thread is held while the step waits. Without {@code wait} the step returns a handle at once and
+ * {@code pingcodeAwait} collects the result later.
+ */
+abstract class AsyncReportExecution extends StepExecution {
+    private static final long serialVersionUID = 1L;
+
+    private transient volatile Authentication authentication;
+    private transient Set<CompletableFuture<?>> running;
+    private transient volatile boolean stopped;
+
+    AsyncReportExecution(StepContext context) {
+        super(context);
+    }
+
+    protected abstract CompletableFuture<?> report() throws Exception;
+
+    protected abstract boolean isWait();
+
+    @Override
+    public boolean start() throws Exception {
+        authentication = Jenkins.getAuthentication();
+        running = ConcurrentHashMap.newKeySet();
+        CompletableFuture<?> report = report();
+        report.whenComplete((result, error) -> {
+            if (error instanceof CancellationException) {
+                // cancelled by pingcodeAwait, stop the stage that is running
+                cancel();
+            }
+        });
+        if (!isWait()) {
+            getContext().onSuccess(PendingReports.register(getContext().get(Run.class), report));
+            return true;
+        }
+        report.whenComplete((result, error) -> {
+            if (stopped) {
+                return;
+            }
+            if (error == null) {
+                getContext().onSuccess(result);
+            } else {
+                getContext().onFailure(unwrap(error));
+            }
+        });
+        return false;
+    }
+
+    @Override
+    public void stop(@Nonnull Throwable cause) throws Exception {
+        cancel();
+        getContext().onFailure(cause);
+    }
+
+    private void cancel() {
+        stopped = true;
+        Set<CompletableFuture<?>> stages = running;
+        if (stages != null) {
+            for (CompletableFuture<?> stage : stages) {
+                stage.cancel(true);
+            }
+        }
+    }
+
+    @Override
+    public void onResume() {
+        getContext().onFailure(new AbortException("Resuming a PingCode report after a restart is not supported"));
+    }
+
+    /**
+     * Runs {@code task} on the report threads with the authentication the step started with.
+     */
+    protected <T> CompletableFuture<T> stage(Callable<T> task) {
+        Authentication auth = authentication;
+        return track(ReportExecutor.supply(() -> {
+            try (ACLContext ignored = ACL.as(auth)) {
+                return task.call();
+            }
+        }));
+    }
+
+    /**
+     * Makes {@code future} one of the stages that are cancelled when the step is stopped.
+     */
+    protected <T> CompletableFuture<T> track(CompletableFuture<T> future) {
+        running.add(future);
+        future.whenComplete((value, error) -> running.remove(future));
+        if (stopped) {
+            future.cancel(true);
+        }
+        return future;
+    }
+
+    /**
+     * Turns the outcome of the delivery into whether it was delivered: a failure is logged and only fails the
+     * step with {@code failOnError}.
+     */
+    protected static CompletableFuture<Boolean> settle(CompletableFuture<Boolean> delivery, WTLogger logger,
+            boolean failOnError, String success, String record) {
+        return delivery.handle((sent, error) -> {
+            if (error == null) {
+                logger.info(Boolean.FALSE.equals(sent) ? RecordDeduplicator.skipped(record) : success);
+                return true;
+            }
+            Throwable cause = unwrap(error);
+            if (cause instanceof CancellationException || cause instanceof InterruptedException
+                    || cause instanceof AbortException) {
+                throw new CompletionException(cause);
+            }
+            logger.error(cause.getMessage());
+            if (failOnError) {
+                throw new CompletionException(new AbortException(cause.getMessage()));
+            }
+            return false;
+        });
+    }
+
+    static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
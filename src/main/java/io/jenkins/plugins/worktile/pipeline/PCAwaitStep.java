@@ -0,0 +1,102 @@
+package io.jenkins.plugins.worktile.pipeline;
+
+import com.google.common.collect.ImmutableSet;
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.worktile.WTLogger;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.jetbrains.annotations.NotNull;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import javax.annotation.Nonnull;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+public class PCAwaitStep extends Step implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @DataBoundSetter
+    private List<String> handles;
+
+    @DataBoundConstructor
+    public PCAwaitStep() {
+    }
+
+    @Override
+    public StepExecution start(StepContext context) throws Exception {
+        return new PCAwaitStepExecution(context, this);
+    }
+
+    public static class PCAwaitStepExecution extends StepExecution {
+        private static final long serialVersionUID = 1L;
+
+        private final PCAwaitStep step;
+
+        private transient volatile Collection<CompletableFuture<?>> awaited;
+
+        public PCAwaitStepExecution(StepContext context, PCAwaitStep step) {
+            super(context);
+            this.step = step;
+        }
+
+        @Override
+        public boolean start() throws Exception {
+            Map<String, CompletableFuture<?>> reports = PendingReports.take(getContext().get(Run.class),
+                    step.handles);
+            if (reports.isEmpty()) {
+                getContext().onSuccess(true);
+                return true;
+            }
+            WTLogger logger = new WTLogger(getContext().get(TaskListener.class));
+            logger.items("Wait for pingcode reports", reports.keySet());
+            awaited = reports.values();
+            CompletableFuture.allOf(awaited.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, error) -> {
+                if (error == null) {
+                    getContext().onSuccess(true);
+                } else {
+                    getContext().onFailure(AsyncReportExecution.unwrap(error));
+                }
+            });
+            return false;
+        }
+
+        @Override
+        public void stop(@Nonnull Throwable cause) throws Exception {
+            Collection<CompletableFuture<?>> reports = awaited;
+            if (reports != null) {
+                for (CompletableFuture<?> report : reports) {
+                    report.cancel(true);
+                }
+            }
+            getContext().onFailure(cause);
+        }
+    }
+
+    @Extension
+    public static class DescriptorImpl extends StepDescriptor {
+        @Override
+        public Set<Class<?>> getRequiredContext() {
+            return ImmutableSet.of(Run.class, TaskListener.class);
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "pingcodeAwait";
+        }
+
+        @NotNull
+        @Override
+        public String getDisplayName() {
+            return "Wait for pingcode reports sent without waiting";
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package io.jenkins.plugins.worktile.pipeline;
+
+import hudson.model.Run;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reports started with {@code wait: false}, by run, until {@code pingcodeAwait} takes them.
+ */
+final class PendingReports {
+    private static final AtomicLong sequence = new AtomicLong();
+
+    private static final Map<Run<?, ?>, Map<String, CompletableFuture<?>>> pending = new WeakHashMap<>();
+
+    private PendingReports() {
+    }
+
+    static String register(Run<?, ?> run, CompletableFuture<?> report) {
+        String handle = "pingcode-report-" + sequence.incrementAndGet();
+        synchronized (pending) {
+            pending.computeIfAbsent(run, key -> new LinkedHashMap<>()).put(handle, report);
+        }
+        return handle;
+    }
+
+    /**
+     * Removes and returns the given reports of the run, or all of them when {@code handles} is empty.
+     */
+    static Map<String, CompletableFuture<?>> take(Run<?, ?> run, Collection<String> handles) {
+        synchronized (pending) {
+            Map<String, CompletableFuture<?>> reports = pending.get(run);
+            if (reports == null) {
+                return Collections.emptyMap();
+            }
+            if (handles == null || handles.isEmpty()) {
+                pending.remove(run);
+                return reports;
+            }
+            Map<String, CompletableFuture<?>> taken = new LinkedHashMap<>();
+            for (String handle : handles) {
+                CompletableFuture<?> report = reports.remove(handle);
+                if (report != null) {
+                    taken.put(handle, report);
+                }
+            }
+            return taken;
+        }
+    }
+}
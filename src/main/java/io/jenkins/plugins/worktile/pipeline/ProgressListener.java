@@ -0,0 +1,79 @@
+package io.jenkins.plugins.worktile.pipeline;
+
+import hudson.Extension;
+import hudson.model.Queue;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import io.jenkins.plugins.worktile.WTGlobalConfiguration;
+import io.jenkins.plugins.worktile.service.ProgressUpdates;
+import org.jenkinsci.plugins.workflow.actions.LabelAction;
+import org.jenkinsci.plugins.workflow.actions.ThreadNameAction;
+import org.jenkinsci.plugins.workflow.flow.GraphListener;
+import org.jenkinsci.plugins.workflow.graph.BlockEndNode;
+import org.jenkinsci.plugins.workflow.graph.BlockStartNode;
+import org.jenkinsci.plugins.workflow.graph.FlowNode;
+import org.jenkinsci.plugins.workflow.graph.FlowStartNode;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Streams the stage a pipeline reached to PingCode as an in-progress build record when progress streaming is
+ * enabled. Parallel branches are not stages and are skipped. When the run ends, its result closes the record.
+ */
+@Extension
+public class ProgressListener implements GraphListener {
+    private static final Logger logger = Logger.getLogger(ProgressListener.class.getName());
+
+    @Override
+    public void onNewHead(FlowNode node) {
+        WTGlobalConfiguration config = WTGlobalConfiguration.get();
+        if (!config.isStreamProgress()) {
+            return;
+        }
+        String overview = describe(node);
+        if (overview == null) {
+            return;
+        }
+        try {
+            Queue.Executable executable = node.getExecution().getOwner().getExecutable();
+            if (executable instanceof WorkflowRun) {
+                ProgressUpdates.offer((WorkflowRun) executable, overview, config.getProgressWindowSeconds());
+            }
+        } catch (IOException e) {
+            logger.log(Level.FINE, "unable to find the run of " + node.getId(), e);
+        }
+    }
+
+    static String describe(FlowNode node) {
+        if (node instanceof FlowStartNode) {
+            return "Started";
+        }
+        if (node instanceof BlockStartNode && isStage(node)) {
+            return "Stage " + node.getDisplayName() + " running";
+        }
+        if (node instanceof BlockEndNode && isStage(((BlockEndNode<?>) node).getStartNode())) {
+            String stage = ((BlockEndNode<?>) node).getStartNode().getDisplayName();
+            return "Stage " + stage + (node.getError() != null ? " failed" : " finished");
+        }
+        return null;
+    }
+
+    private static boolean isStage(FlowNode node) {
+        return node.getAction(LabelAction.class) != null && node.getAction(ThreadNameAction.class) == null;
+    }
+
+    /**
+     * Sends the final record of a streamed pipeline that sent none itself.
+     */
+    @Extension
+    public static final class Completion extends RunListener<WorkflowRun> {
+        @Override
+        public void onCompleted(WorkflowRun run, @Nonnull TaskListener listener) {
+            ProgressUpdates.complete(run);
+        }
+    }
+}
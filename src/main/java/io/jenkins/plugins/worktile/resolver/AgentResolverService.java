@@ -0,0 +1,213 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.storage.file.WindowCacheConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Agent-side singleton shared by all resolver callbacks running in this JVM. It keeps a bounded pool of open
+ * repositories, merges concurrent walks of the same range into one, and caps how many walks run at once.
+ */
+public final class AgentResolverService {
+    private static final Logger logger = Logger.getLogger(AgentResolverService.class.getName());
+
+    public static final int POOL_SIZE = Integer.getInteger(AgentResolverService.class.getName() + ".poolSize", 16);
+
+    private static final long MB = 1024L * 1024;
+
+    private static final AgentResolverService INSTANCE = new AgentResolverService();
+
+    private final Map<String, PooledRepository> pool = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<Object>> inflight = new ConcurrentHashMap<>();
+
+    private final Permits walks = new Permits(HistoryBackends.Settings.DEFAULT_CONCURRENT_WALKS);
+    private int walkPermits = HistoryBackends.Settings.DEFAULT_CONCURRENT_WALKS;
+    private boolean windowCacheInstalled;
+
+    AgentResolverService() {
+    }
+
+    public static AgentResolverService get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns a pooled repository with its use count incremented, callers close it when done.
+     */
+    public synchronized FileRepository open(File gitDir) throws IOException {
+        String key = gitDir.getCanonicalPath();
+        long configModified = new File(gitDir, "config").lastModified();
+        PooledRepository pooled = pool.get(key);
+        if (pooled != null && pooled.configModified != configModified) {
+            // the workspace was wiped and cloned again
+            pool.remove(key);
+            pooled.repository.close();
+            pooled = null;
+        }
+        if (pooled == null) {
+            pooled = new PooledRepository(new FileRepository(gitDir), configModified);
+            pool.put(key, pooled);
+            evict();
+        }
+        pooled.repository.incrementOpen();
+        return pooled.repository;
+    }
+
+    /**
+     * Drops the pooled repository of a git directory about to be deleted.
+     */
+    public synchronized void close(File gitDir) throws IOException {
+        PooledRepository pooled = pool.remove(gitDir.getCanonicalPath());
+        if (pooled != null) {
+            pooled.repository.close();
+        }
+    }
+
+    public CommitWalkResult walk(File gitDir, FileRepository repository, HistoryBackends.Settings settings,
+            Pattern pattern, ObjectId until, List<ObjectId> since, Set<String> seen)
+            throws IOException, InterruptedException {
+        Semaphore permits = configure(settings);
+        return shared(key(settings, pattern, until, since, seen), () -> {
+            permits.acquire();
+            try {
+                CommitWalkResult result = new CommitWalkResult(settings.isTrackAssociations());
+                try (CommitIndex index = CommitIndex.open(gitDir, pattern)) {
+                    HistoryBackends.open(settings, gitDir, repository).walk(index, settings.getBudget(), result,
+                            until, since, toObjectIds(seen));
+                }
+                return result;
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    /**
+     * Runs {@code walk} unless a walk of the same key is running, in which case its result is returned.
+     */
+    <T> T shared(String key, Callable<T> walk) throws IOException, InterruptedException {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inflight.putIfAbsent(key, mine);
+        if (running != null) {
+            logger.fine("join running walk " + key);
+            try {
+                @SuppressWarnings("unchecked")
+                T result = (T) running.get();
+                return result;
+            } catch (ExecutionException e) {
+                // the walk we joined failed or was aborted with its build, run our own
+                return shared(key, walk);
+            }
+        }
+        try {
+            T result = walk.call();
+            mine.complete(result);
+            return result;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } catch (Exception e) {
+            mine.completeExceptionally(e);
+            throw new IOException(e);
+        } finally {
+            inflight.remove(key, mine);
+        }
+    }
+
+    synchronized Semaphore configure(HistoryBackends.Settings settings) {
+        // resized in place, the walks running keep the permits they hold and release them to the new size
+        int change = settings.getConcurrentWalks() - walkPermits;
+        if (change > 0) {
+            walks.release(change);
+        } else if (change < 0) {
+            walks.reducePermits(-change);
+        }
+        walkPermits = settings.getConcurrentWalks();
+        if (settings.getWindowCacheMb() > 0 && !windowCacheInstalled) {
+            // JGit has one window cache per JVM, shared with the git plugin; it is set once and kept until the
+            // agent restarts, so builds do not keep swapping it under each other
+            windowCacheInstalled = true;
+            WindowCacheConfig config = new WindowCacheConfig();
+            config.setPackedGitMMAP(true);
+            config.setPackedGitLimit(settings.getWindowCacheMb() * MB);
+            config.install();
+            logger.info("JGit window cache set to " + settings.getWindowCacheMb() + " MB, memory-mapped");
+        }
+        return walks;
+    }
+
+    private void evict() {
+        Iterator<PooledRepository> iterator = pool.values().iterator();
+        while (pool.size() > POOL_SIZE && iterator.hasNext()) {
+            PooledRepository eldest = iterator.next();
+            iterator.remove();
+            // drops the pool's reference, callers still using it keep it open until they close it
+            eldest.repository.close();
+        }
+    }
+
+    private static Set<ObjectId> toObjectIds(Set<String> commits) {
+        Set<ObjectId> ids = new HashSet<>();
+        for (String commit : commits) {
+            if (ObjectId.isId(commit)) {
+                ids.add(ObjectId.fromString(commit));
+            }
+        }
+        return ids;
+    }
+
+    private static String key(HistoryBackends.Settings settings, Pattern pattern, ObjectId until,
+            List<ObjectId> since, Set<String> seen) {
+        StringBuilder key = new StringBuilder(until.name());
+        since.stream().map(ObjectId::name).sorted().forEach(id -> key.append('^').append(id));
+        return key.append('|').append(pattern.pattern())
+                .append('|').append(settings.getMode())
+                .append('|').append(settings.getBudget().getMaxCommits())
+                .append('|').append(settings.getBudget().getMaxMillis())
+                .append('|').append(settings.isTrackAssociations())
+                .append('|').append(seen.size()).append(':').append(seen.hashCode())
+                .toString();
+    }
+
+    /**
+     * A semaphore whose size can shrink while its permits are held.
+     */
+    private static final class Permits extends Semaphore {
+        private static final long serialVersionUID = 1L;
+
+        Permits(int permits) {
+            super(permits);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+
+    private static final class PooledRepository {
+        private final FileRepository repository;
+        private final long configModified;
+
+        private PooledRepository(FileRepository repository, long configModified) {
+            this.repository = repository;
+            this.configModified = configModified;
+        }
+    }
+}
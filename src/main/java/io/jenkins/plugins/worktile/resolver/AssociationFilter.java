@@ -0,0 +1,157 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scalable Bloom filter over 64-bit (commit, work item) fingerprints. A full stage is frozen and a new one twice
+ * its capacity with half its false positive rate is added, so the compound rate stays below twice the first
+ * stage's rate however many pairs are recorded.
+ */
+public class AssociationFilter {
+    static final int INITIAL_CAPACITY = 1024;
+    static final double INITIAL_FALSE_POSITIVE_RATE = 0.01;
+    static final int MAX_CAPACITY = 1 << 24;
+
+    private final List<Stage> stages = new ArrayList<>();
+
+    public AssociationFilter() {
+        stages.add(new Stage(INITIAL_CAPACITY, INITIAL_FALSE_POSITIVE_RATE));
+    }
+
+    private AssociationFilter(List<Stage> stages) {
+        this.stages.addAll(stages);
+    }
+
+    /**
+     * FNV-1a over the commit id and the upper-cased identifier without its leading {@code #}. Identifiers found
+     * outside any commit, such as in a pull request title, use an empty commit.
+     */
+    public static long fingerprint(String commit, String identifier) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < commit.length(); i++) {
+            hash = (hash ^ commit.charAt(i)) * 0x100000001b3L;
+        }
+        hash = (hash ^ '\n') * 0x100000001b3L;
+        int start = identifier.startsWith("#") ? 1 : 0;
+        for (int i = start; i < identifier.length(); i++) {
+            hash = (hash ^ Character.toUpperCase(identifier.charAt(i))) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    public boolean mightContain(long fingerprint) {
+        for (Stage stage : stages) {
+            if (stage.mightContain(fingerprint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void add(long fingerprint) {
+        if (mightContain(fingerprint)) {
+            return;
+        }
+        Stage last = stages.get(stages.size() - 1);
+        if (last.count >= last.capacity && last.capacity < MAX_CAPACITY) {
+            last = new Stage(last.capacity * 2, last.falsePositiveRate / 2);
+            stages.add(last);
+        }
+        last.add(fingerprint);
+    }
+
+    public long count() {
+        long count = 0;
+        for (Stage stage : stages) {
+            count += stage.count;
+        }
+        return count;
+    }
+
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(stages.size());
+        for (Stage stage : stages) {
+            out.writeInt(stage.capacity);
+            out.writeDouble(stage.falsePositiveRate);
+            out.writeInt(stage.count);
+            out.writeInt(stage.bits.length);
+            for (long word : stage.bits) {
+                out.writeLong(word);
+            }
+        }
+    }
+
+    public static AssociationFilter read(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size <= 0 || size > 32) {
+            throw new IOException("corrupt association filter with " + size + " stages");
+        }
+        List<Stage> stages = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int capacity = in.readInt();
+            double falsePositiveRate = in.readDouble();
+            if (capacity <= 0 || capacity > MAX_CAPACITY || !(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+                throw new IOException("corrupt association filter stage " + i);
+            }
+            Stage stage = new Stage(capacity, falsePositiveRate);
+            stage.count = in.readInt();
+            int words = in.readInt();
+            if (words != stage.bits.length) {
+                throw new IOException("corrupt association filter stage " + i);
+            }
+            for (int j = 0; j < words; j++) {
+                stage.bits[j] = in.readLong();
+            }
+            stages.add(stage);
+        }
+        return new AssociationFilter(stages);
+    }
+
+    private static final class Stage {
+        private final int capacity;
+        private final double falsePositiveRate;
+        private final int hashes;
+        private final long[] bits;
+        private int count;
+
+        Stage(int capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            this.hashes = Math.max(1, (int) Math.ceil(-Math.log(falsePositiveRate) / Math.log(2)));
+            long size = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bits = new long[(int) Math.max(1, (size + 63) / 64)];
+        }
+
+        boolean mightContain(long fingerprint) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = bit(fingerprint, i);
+                if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void add(long fingerprint) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = bit(fingerprint, i);
+                bits[(int) (bit >>> 6)] |= 1L << bit;
+            }
+            count++;
+        }
+
+        // double hashing on the two halves of the mixed fingerprint
+        private long bit(long fingerprint, int i) {
+            long mixed = fingerprint ^ (fingerprint >>> 33);
+            mixed *= 0xff51afd7ed558ccdL;
+            mixed ^= mixed >>> 33;
+            long h1 = (int) mixed;
+            long h2 = (int) (mixed >>> 32);
+            return ((h1 + i * h2) & Long.MAX_VALUE) % (bits.length * 64L);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import org.eclipse.jgit.lib.ObjectId;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Streams {@code git log} output through the identifier pattern, one commit message at a time. On large
+ * repositories the native git uses the commit-graph and pack bitmaps, which JGit does not.
+ */
+public class CliHistoryBackend implements HistoryBackend {
+    private final File gitDir;
+    private final String gitExe;
+
+    public CliHistoryBackend(File gitDir, String gitExe) {
+        this.gitDir = gitDir;
+        this.gitExe = gitExe == null ? "git" : gitExe;
+    }
+
+    @Override
+    public void walk(CommitIndex index, WalkBudget budget, CommitWalkResult result, ObjectId until,
+            Collection<ObjectId> since, Set<ObjectId> seen) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(gitExe);
+        command.add("--git-dir=" + gitDir.getAbsolutePath());
+        command.add("log");
+        command.add("--no-color");
+        command.add("--format=%H%n%B%x00");
+        command.add("--max-count=" + ((long) budget.getMaxCommits() + 1));
+        // a range start missing here, like a force-pushed mark, is left out as JGit does instead of failing
+        command.add("--ignore-missing");
+        command.add(until.name());
+        if (!since.isEmpty()) {
+            command.add("--not");
+            for (ObjectId id : since) {
+                if (id != null) {
+                    command.add(id.name());
+                }
+            }
+        }
+        command.add("--");
+
+        // stderr goes to a file, a pipe nobody reads while the output is streamed could block git
+        File errors = File.createTempFile("pingcode-git-log", ".err");
+        Process process;
+        try {
+            process = new ProcessBuilder(command).directory(gitDir).redirectError(errors).start();
+        } catch (IOException e) {
+            Files.deleteIfExists(errors.toPath());
+            throw e;
+        }
+        WalkBudget.Tracker tracker = budget.start();
+        try {
+            process.getOutputStream().close();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                StringBuilder record = new StringBuilder();
+                int c;
+                while ((c = reader.read()) >= 0) {
+                    if (c != 0) {
+                        record.append((char) c);
+                        continue;
+                    }
+                    if (!tracker.next()) {
+                        result.setTruncated(true);
+                        break;
+                    }
+                    accept(index, result, record, seen);
+                    record.setLength(0);
+                }
+            }
+            if (!result.isTruncated()) {
+                int status = process.waitFor();
+                if (status != 0) {
+                    throw new IOException("git log exited with " + status + ": " + readError(errors));
+                }
+            }
+        } finally {
+            // also stops git when the walk was aborted with its build
+            process.destroy();
+            if (!errors.delete()) {
+                // still open by a git that is stopping
+                errors.deleteOnExit();
+            }
+        }
+        result.addWalked(Math.min(tracker.getCommits(), budget.getMaxCommits()));
+    }
+
+    private static void accept(CommitIndex index, CommitWalkResult result, StringBuilder record,
+            Set<ObjectId> seen) throws IOException {
+        int start = 0;
+        while (start < record.length() && record.charAt(start) == '\n') {
+            start++;
+        }
+        int newline = record.indexOf("\n", start);
+        String sha = record.substring(start, newline < 0 ? record.length() : newline);
+        if (!ObjectId.isId(sha)) {
+            return;
+        }
+        ObjectId id = ObjectId.fromString(sha);
+        if (seen.contains(id)) {
+            return;
+        }
+        String message = newline < 0 ? "" : record.substring(newline + 1);
+        result.add(id, index.identifiersOf(id, () -> message));
+    }
+
+    private static String readError(File errors) throws IOException {
+        return new String(Files.readAllBytes(errors.toPath()), StandardCharsets.UTF_8).trim();
+    }
+}
@@ -0,0 +1,306 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Agent-local, append-only index of commit id to the work item identifiers found in its message.
+ * The file lives inside the repository's git directory and is memory-mapped on open. The header
+ * carries a format version and the hash of the identifier pattern, a mismatch on either resets it.
+ */
+public class CommitIndex implements Closeable {
+    private static final Logger logger = Logger.getLogger(CommitIndex.class.getName());
+
+    public static final String FILE_NAME = "pingcode-commits.idx";
+
+    public static final boolean DISABLED = Boolean.getBoolean(CommitIndex.class.getName() + ".disabled");
+
+    static final int MAGIC = 0x50434349;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 12;
+    static final long MAX_SIZE = 64L * 1024 * 1024;
+
+    private static final Map<String, Object> fileLocks = new ConcurrentHashMap<>();
+
+    private final File file;
+    private final Pattern pattern;
+    private final int patternHash;
+    private final Map<ObjectId, Integer> offsets = new HashMap<>();
+    private final Map<ObjectId, List<String>> pending = new LinkedHashMap<>();
+
+    private MappedByteBuffer buffer;
+    private long validLength = HEADER_SIZE;
+
+    private CommitIndex(File file, Pattern pattern) {
+        this.file = file;
+        this.pattern = pattern;
+        this.patternHash = pattern.pattern().hashCode();
+    }
+
+    public static CommitIndex open(File gitDir, Pattern pattern) {
+        CommitIndex index = new CommitIndex(new File(gitDir, FILE_NAME), pattern);
+        if (DISABLED) {
+            return index;
+        }
+        try {
+            index.load();
+        } catch (IOException e) {
+            logger.log(Level.FINE, "commit index unavailable at " + index.file, e);
+            index.offsets.clear();
+            index.buffer = null;
+        }
+        return index;
+    }
+
+    public List<String> get(AnyObjectId commitId) {
+        List<String> identifiers = pending.get(commitId);
+        if (identifiers != null) {
+            return identifiers;
+        }
+        Integer offset = offsets.get(commitId);
+        if (offset == null || buffer == null) {
+            return null;
+        }
+        return readIdentifiers(buffer, offset + Constants.OBJECT_ID_LENGTH);
+    }
+
+    public boolean contains(AnyObjectId commitId) {
+        return pending.containsKey(commitId) || offsets.containsKey(commitId);
+    }
+
+    public void put(AnyObjectId commitId, List<String> identifiers) {
+        if (!contains(commitId)) {
+            pending.put(commitId.copy(), identifiers);
+        }
+    }
+
+    /**
+     * Returns the identifiers of the commit from the index, extracting them from {@code message} and
+     * recording them when the commit has not been seen before.
+     */
+    public List<String> identifiersOf(AnyObjectId commitId, MessageSource message) throws IOException {
+        List<String> identifiers = get(commitId);
+        if (identifiers == null) {
+            identifiers = WorkItemResolver.extract(pattern, message.get());
+            put(commitId, identifiers);
+        }
+        return identifiers;
+    }
+
+    public int size() {
+        return offsets.size() + pending.size();
+    }
+
+    public void flush() throws IOException {
+        if (DISABLED || pending.isEmpty()) {
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (Map.Entry<ObjectId, List<String>> entry : pending.entrySet()) {
+            writeRecord(out, entry.getKey(), entry.getValue());
+        }
+        out.flush();
+        if (HEADER_SIZE + bytes.size() > MAX_SIZE) {
+            pending.clear();
+            return;
+        }
+
+        synchronized (lockOf(file)) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE); FileLock ignored = channel.lock()) {
+                long size = channel.size();
+                long end = -1;
+                if (size >= HEADER_SIZE && size <= MAX_SIZE && hasValidHeader(channel)) {
+                    // another build may have appended since we loaded, or rewritten the file we found invalid or
+                    // oversized: keep its complete records and drop a torn tail
+                    long from = validLength >= HEADER_SIZE && validLength <= size ? validLength : HEADER_SIZE;
+                    end = from + scan(read(channel, from, size), 0, null);
+                    if (end + bytes.size() > MAX_SIZE) {
+                        end = -1;
+                    }
+                }
+                // the mapping is dropped before truncating, a mapped file cannot be truncated on Windows
+                if (end < 0) {
+                    release();
+                    channel.truncate(0);
+                    writeHeader(channel);
+                    end = HEADER_SIZE;
+                } else if (end < size) {
+                    release();
+                    channel.truncate(end);
+                }
+                channel.write(ByteBuffer.wrap(bytes.toByteArray()), end);
+                channel.force(false);
+                validLength = end + bytes.size();
+            } catch (OverlappingFileLockException e) {
+                throw new IOException("commit index " + file + " is locked by another channel of this process", e);
+            }
+        }
+        pending.clear();
+    }
+
+    @Override
+    public void close() {
+        try {
+            flush();
+        } catch (IOException e) {
+            logger.log(Level.FINE, "unable to update commit index " + file, e);
+        }
+        release();
+    }
+
+    /**
+     * Returns the in-process lock of {@code file}. File locks are held on behalf of the whole JVM, so two
+     * walks of the same repository on one controller or agent serialize here before taking the file lock.
+     */
+    static Object lockOf(File file) {
+        String key;
+        try {
+            key = file.getCanonicalPath();
+        } catch (IOException e) {
+            key = file.getAbsolutePath();
+        }
+        return fileLocks.computeIfAbsent(key, ignored -> new Object());
+    }
+
+    private void release() {
+        buffer = null;
+        offsets.clear();
+    }
+
+    private void load() throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > MAX_SIZE || !hasValidHeader(channel)) {
+                // versioned invalidation, the file is rewritten on the next flush
+                validLength = 0;
+                return;
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            validLength = scan(buffer, HEADER_SIZE, offsets);
+        }
+    }
+
+    private boolean hasValidHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                return false;
+            }
+        }
+        header.flip();
+        return header.getInt() == MAGIC && header.getInt() == VERSION && header.getInt() == patternHash;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer region = ByteBuffer.allocate((int) (to - from));
+        while (region.hasRemaining()) {
+            if (channel.read(region, from + region.position()) < 0) {
+                break;
+            }
+        }
+        region.flip();
+        return region;
+    }
+
+    private void writeHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(patternHash);
+        header.flip();
+        channel.write(header, 0);
+    }
+
+    private static int scan(ByteBuffer source, int start, Map<ObjectId, Integer> target) {
+        int position = start;
+        int limit = source.limit();
+        while (position + Constants.OBJECT_ID_LENGTH + 2 <= limit) {
+            int cursor = position + Constants.OBJECT_ID_LENGTH;
+            int count = source.getShort(cursor) & 0xFFFF;
+            cursor += 2;
+            for (int i = 0; i < count && cursor >= 0; i++) {
+                if (cursor + 2 > limit) {
+                    cursor = -1;
+                    break;
+                }
+                cursor += 2 + (source.getShort(cursor) & 0xFFFF);
+            }
+            if (cursor < 0 || cursor > limit) {
+                break;
+            }
+            if (target != null) {
+                byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+                for (int i = 0; i < raw.length; i++) {
+                    raw[i] = source.get(position + i);
+                }
+                target.put(ObjectId.fromRaw(raw), position);
+            }
+            position = cursor;
+        }
+        return position;
+    }
+
+    private static List<String> readIdentifiers(ByteBuffer source, int position) {
+        int count = source.getShort(position) & 0xFFFF;
+        if (count == 0) {
+            return Collections.emptyList();
+        }
+        List<String> identifiers = new ArrayList<>(count);
+        int cursor = position + 2;
+        for (int i = 0; i < count; i++) {
+            int length = source.getShort(cursor) & 0xFFFF;
+            byte[] raw = new byte[length];
+            for (int j = 0; j < length; j++) {
+                raw[j] = source.get(cursor + 2 + j);
+            }
+            identifiers.add(new String(raw, StandardCharsets.UTF_8));
+            cursor += 2 + length;
+        }
+        return identifiers;
+    }
+
+    private static void writeRecord(DataOutputStream out, ObjectId id, List<String> identifiers)
+            throws IOException {
+        byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+        id.copyRawTo(raw, 0);
+        out.write(raw);
+        int count = Math.min(identifiers.size(), 0xFFFF);
+        out.writeShort(count);
+        for (int i = 0; i < count; i++) {
+            byte[] value = identifiers.get(i).getBytes(StandardCharsets.UTF_8);
+            out.writeShort(Math.min(value.length, 0xFFFF));
+            out.write(value, 0, Math.min(value.length, 0xFFFF));
+        }
+    }
+
+    public interface MessageSource {
+        String get() throws IOException;
+    }
+}
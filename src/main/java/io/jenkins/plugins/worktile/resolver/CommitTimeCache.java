@@ -0,0 +1,139 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only commit id to commit time cache kept in the git directory. Commit times never change for a
+ * given id, so entries are only invalidated by a format version change.
+ */
+public class CommitTimeCache implements Closeable {
+    private static final Logger logger = Logger.getLogger(CommitTimeCache.class.getName());
+
+    public static final String FILE_NAME = "pingcode-commit-times.idx";
+
+    public static final int MISSING = Integer.MIN_VALUE;
+
+    static final int MAGIC = 0x50435443;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int RECORD_SIZE = Constants.OBJECT_ID_LENGTH + 4;
+    static final long MAX_SIZE = 32L * 1024 * 1024;
+
+    private final File file;
+    private final Map<ObjectId, Integer> times = new HashMap<>();
+    private final Map<ObjectId, Integer> pending = new LinkedHashMap<>();
+
+    private CommitTimeCache(File file) {
+        this.file = file;
+    }
+
+    public static CommitTimeCache open(File gitDir) {
+        CommitTimeCache cache = new CommitTimeCache(new File(gitDir, FILE_NAME));
+        if (CommitIndex.DISABLED) {
+            return cache;
+        }
+        try {
+            cache.load();
+        } catch (IOException e) {
+            logger.log(Level.FINE, "commit time cache unavailable at " + cache.file, e);
+            cache.times.clear();
+        }
+        return cache;
+    }
+
+    public int get(AnyObjectId commitId) {
+        Integer time = times.get(commitId);
+        if (time == null) {
+            time = pending.get(commitId);
+        }
+        return time == null ? MISSING : time;
+    }
+
+    public void put(AnyObjectId commitId, int time) {
+        if (!times.containsKey(commitId)) {
+            pending.put(commitId.copy(), time);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (CommitIndex.DISABLED || pending.isEmpty()) {
+            return;
+        }
+        ByteBuffer records = ByteBuffer.allocate(pending.size() * RECORD_SIZE);
+        byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+        for (Map.Entry<ObjectId, Integer> entry : pending.entrySet()) {
+            entry.getKey().copyRawTo(raw, 0);
+            records.put(raw).putInt(entry.getValue());
+        }
+        records.flip();
+        synchronized (CommitIndex.lockOf(file)) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE); FileLock ignored = channel.lock()) {
+                long size = channel.size();
+                if (size < HEADER_SIZE || size > MAX_SIZE || !hasValidHeader(channel)) {
+                    channel.truncate(0);
+                    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                    header.putInt(MAGIC).putInt(VERSION).flip();
+                    channel.write(header, 0);
+                    size = HEADER_SIZE;
+                }
+                // drop a torn record left by an interrupted writer
+                long end = HEADER_SIZE + (size - HEADER_SIZE) / RECORD_SIZE * RECORD_SIZE;
+                if (end < channel.size()) {
+                    channel.truncate(end);
+                }
+                channel.write(records, end);
+            } catch (IOException | OverlappingFileLockException e) {
+                logger.log(Level.FINE, "unable to update commit time cache " + file, e);
+            }
+        }
+        pending.clear();
+    }
+
+    private void load() throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > MAX_SIZE || !hasValidHeader(channel)) {
+                return;
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+            buffer.position(HEADER_SIZE);
+            while (buffer.remaining() >= RECORD_SIZE) {
+                buffer.get(raw);
+                times.put(ObjectId.fromRaw(raw), buffer.getInt());
+            }
+        }
+    }
+
+    private static boolean hasValidHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                return false;
+            }
+        }
+        header.flip();
+        return header.getInt() == MAGIC && header.getInt() == VERSION;
+    }
+}
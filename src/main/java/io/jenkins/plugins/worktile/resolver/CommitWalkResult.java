@@ -0,0 +1,110 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import org.eclipse.jgit.lib.AnyObjectId;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class CommitWalkResult implements Serializable {
+    private static final long serialVersionUID = 2L;
+
+    private final List<Found> found = new ArrayList<>();
+
+    private final boolean trackAssociations;
+
+    private String head;
+
+    private boolean truncated;
+
+    private int walked;
+
+    public CommitWalkResult() {
+        this(false);
+    }
+
+    /**
+     * @param trackAssociations whether the commit each identifier was found in is kept
+     */
+    public CommitWalkResult(boolean trackAssociations) {
+        this.trackAssociations = trackAssociations;
+    }
+
+    public List<String> getIdentifiers() {
+        List<String> identifiers = new ArrayList<>();
+        for (Found commit : found) {
+            identifiers.addAll(commit.identifiers);
+        }
+        return identifiers;
+    }
+
+    /**
+     * The commits that had identifiers, in walk order.
+     */
+    public List<Found> getFound() {
+        return Collections.unmodifiableList(found);
+    }
+
+    public void add(AnyObjectId commit, List<String> identifiers) {
+        if (!identifiers.isEmpty()) {
+            found.add(new Found(trackAssociations ? commit.name() : null, identifiers));
+        }
+    }
+
+    public void merge(CommitWalkResult other) {
+        found.addAll(other.found);
+        truncated = truncated || other.truncated;
+        walked += other.walked;
+    }
+
+    public String getHead() {
+        return head;
+    }
+
+    public void setHead(String head) {
+        this.head = head;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    public int getWalked() {
+        return walked;
+    }
+
+    public void addWalked(int walked) {
+        this.walked += walked;
+    }
+
+    /**
+     * A commit and the identifiers found in its message.
+     */
+    public static final class Found implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String commit;
+        private final List<String> identifiers;
+
+        Found(String commit, List<String> identifiers) {
+            this.commit = commit;
+            this.identifiers = new ArrayList<>(identifiers);
+        }
+
+        /**
+         * The commit id, or null when associations are not tracked.
+         */
+        public String getCommit() {
+            return commit;
+        }
+
+        public List<String> getIdentifiers() {
+            return identifiers;
+        }
+    }
+}
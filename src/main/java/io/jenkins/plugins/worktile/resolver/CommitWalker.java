@@ -0,0 +1,96 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.errors.RevisionSyntaxException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Walks {@code until} minus every {@code since} commit, newest first, within a {@link WalkBudget}.
+ * When the budget runs out the identifiers found so far are kept and the result is marked truncated.
+ */
+public final class CommitWalker {
+    private static final Logger logger = Logger.getLogger(CommitWalker.class.getName());
+
+    private CommitWalker() {
+    }
+
+    public static void walk(Repository repository, CommitIndex index, WalkBudget budget, CommitWalkResult result,
+            ObjectId until, Collection<ObjectId> since, Set<ObjectId> seen) throws IOException, InterruptedException {
+        WalkBudget.Tracker tracker = budget.start();
+        try (RevWalk walk = new RevWalk(repository)) {
+            walk.setRetainBody(false);
+            walk.markStart(walk.parseCommit(until));
+            for (ObjectId id : since) {
+                if (id == null) {
+                    continue;
+                }
+                try {
+                    walk.markUninteresting(walk.parseCommit(id));
+                } catch (MissingObjectException | IncorrectObjectTypeException e) {
+                    logger.fine("ignore unknown range start " + id.name());
+                }
+            }
+            for (RevCommit commit : walk) {
+                if (!tracker.next()) {
+                    result.setTruncated(true);
+                    break;
+                }
+                if (seen.contains(commit)) {
+                    continue;
+                }
+                result.add(commit, index.identifiersOf(commit, () -> {
+                    walk.parseBody(commit);
+                    String message = commit.getFullMessage();
+                    commit.disposeBody();
+                    return message;
+                }));
+            }
+        }
+        result.addWalked(Math.min(tracker.getCommits(), budget.getMaxCommits()));
+    }
+
+    public static ObjectId mergeBase(Repository repository, ObjectId head, String branch) throws IOException {
+        ObjectId target = resolveBranch(repository, branch);
+        if (target == null) {
+            return null;
+        }
+        try (RevWalk walk = new RevWalk(repository)) {
+            walk.setRetainBody(false);
+            walk.setRevFilter(RevFilter.MERGE_BASE);
+            walk.markStart(walk.parseCommit(head));
+            walk.markStart(walk.parseCommit(target));
+            RevCommit base = walk.next();
+            return base == null ? null : base.copy();
+        }
+    }
+
+    private static ObjectId resolveBranch(Repository repository, String branch) throws IOException {
+        if (branch == null || branch.isEmpty()) {
+            return null;
+        }
+        String[] candidates = {Constants.R_REMOTES + Constants.DEFAULT_REMOTE_NAME + "/" + branch,
+                Constants.R_HEADS + branch, branch};
+        for (String candidate : candidates) {
+            try {
+                ObjectId id = repository.resolve(candidate + "^{commit}");
+                if (id != null) {
+                    return id;
+                }
+            } catch (RevisionSyntaxException e) {
+                logger.fine("ignore invalid branch " + candidate);
+            }
+        }
+        return null;
+    }
+}
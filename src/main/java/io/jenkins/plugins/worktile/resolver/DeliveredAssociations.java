@@ -0,0 +1,247 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import hudson.model.Job;
+import jenkins.model.Jenkins;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Per-job record of the (commit, work item) pairs already delivered with a build. Membership is answered by a
+ * scalable Bloom filter first; a hit is confirmed against the exact list of pair fingerprints, so a false
+ * positive never hides a new association. Every few builds everything is sent again and the record restarts.
+ */
+public final class DeliveredAssociations {
+    private static final Logger logger = Logger.getLogger(DeliveredAssociations.class.getName());
+
+    public static final String FILE_NAME = "pingcode-associations.bloom";
+    public static final String EXACT_FILE_NAME = "pingcode-associations.idx";
+
+    public static final int DEFAULT_RESEND_INTERVAL = 20;
+
+    static final int MAGIC = 0x50434241;
+    static final int VERSION = 1;
+    static final int MAX_PAIRS = 1 << 20;
+
+    private static final Object lock = new Object();
+
+    private DeliveredAssociations() {
+    }
+
+    /**
+     * Picks the work items having at least one pair that was not delivered yet, or all of them when the
+     * job has no record or the last full delivery is {@code resendInterval} builds old.
+     */
+    public static Delivery select(Job<?, ?> job, int buildNumber, int resendInterval,
+            Map<String, Set<Long>> associations) {
+        synchronized (lock) {
+            State state = load(job);
+            boolean full = state == null || buildNumber < state.lastFullBuild
+                    || (resendInterval > 0 && buildNumber - state.lastFullBuild >= resendInterval);
+            List<String> identifiers = new ArrayList<>();
+            List<Long> fingerprints = new ArrayList<>();
+            long[] exact = null;
+            for (Map.Entry<String, Set<Long>> entry : associations.entrySet()) {
+                boolean fresh = full;
+                for (Long fingerprint : entry.getValue()) {
+                    boolean delivered = false;
+                    if (!full && state.filter.mightContain(fingerprint)) {
+                        if (exact == null) {
+                            exact = loadExact(job);
+                        }
+                        delivered = Arrays.binarySearch(exact, fingerprint) >= 0;
+                    }
+                    if (!delivered) {
+                        fresh = true;
+                        fingerprints.add(fingerprint);
+                    }
+                }
+                if (fresh) {
+                    identifiers.add(entry.getKey());
+                }
+            }
+            long[] pending = new long[fingerprints.size()];
+            for (int i = 0; i < pending.length; i++) {
+                pending[i] = fingerprints.get(i);
+            }
+            return new Delivery(job.getFullName(), buildNumber, full, identifiers, pending,
+                    associations.size() - identifiers.size());
+        }
+    }
+
+    /**
+     * Records the pairs of a delivery that reached PingCode.
+     */
+    public static void record(Delivery delivery) {
+        if (delivery == null) {
+            return;
+        }
+        Job<?, ?> job = Jenkins.get().getItemByFullName(delivery.getJob(), Job.class);
+        if (job != null) {
+            record(job, delivery);
+        }
+    }
+
+    static void record(Job<?, ?> job, Delivery delivery) {
+        synchronized (lock) {
+            try {
+                State state = delivery.isFull() ? null : load(job);
+                if (state == null) {
+                    state = new State(delivery.getBuildNumber(), new AssociationFilter());
+                    Files.deleteIfExists(exactFile(job).toPath());
+                }
+                if (exactFile(job).length() / 8 + delivery.fingerprints.length > MAX_PAIRS) {
+                    // the next build sends everything and starts a new record
+                    Files.deleteIfExists(file(job).toPath());
+                    Files.deleteIfExists(exactFile(job).toPath());
+                    return;
+                }
+                ByteBuffer appended = ByteBuffer.allocate(delivery.fingerprints.length * 8);
+                for (long fingerprint : delivery.fingerprints) {
+                    state.filter.add(fingerprint);
+                    appended.putLong(fingerprint);
+                }
+                appended.flip();
+                try (FileChannel channel = FileChannel.open(exactFile(job).toPath(), StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                    while (appended.hasRemaining()) {
+                        channel.write(appended);
+                    }
+                }
+                save(job, state);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "unable to save delivered associations of " + delivery.getJob(), e);
+            }
+        }
+    }
+
+    private static State load(Job<?, ?> job) {
+        File file = file(job);
+        if (!file.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            int lastFullBuild = in.readInt();
+            return new State(lastFullBuild, AssociationFilter.read(in));
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "unable to read delivered associations of " + job.getFullName(), e);
+            return null;
+        }
+    }
+
+    private static long[] loadExact(Job<?, ?> job) {
+        File file = exactFile(job);
+        if (!file.exists()) {
+            return new long[0];
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = Math.min(channel.size(), MAX_PAIRS * 8L) / 8 * 8;
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            long[] fingerprints = new long[buffer.remaining() / 8];
+            buffer.asLongBuffer().get(fingerprints);
+            Arrays.sort(fingerprints);
+            return fingerprints;
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "unable to read delivered associations of " + job.getFullName(), e);
+            return new long[0];
+        }
+    }
+
+    private static void save(Job<?, ?> job, State state) throws IOException {
+        File file = file(job);
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(state.lastFullBuild);
+            state.filter.write(out);
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static File file(Job<?, ?> job) {
+        return new File(job.getRootDir(), FILE_NAME);
+    }
+
+    private static File exactFile(Job<?, ?> job) {
+        return new File(job.getRootDir(), EXACT_FILE_NAME);
+    }
+
+    private static final class State {
+        private final int lastFullBuild;
+        private final AssociationFilter filter;
+
+        State(int lastFullBuild, AssociationFilter filter) {
+            this.lastFullBuild = lastFullBuild;
+            this.filter = filter;
+        }
+    }
+
+    public static class Delivery {
+        private final String job;
+        private final int buildNumber;
+        private final boolean full;
+        private final List<String> identifiers;
+        private final long[] fingerprints;
+        private final int skipped;
+
+        Delivery(String job, int buildNumber, boolean full, List<String> identifiers, long[] fingerprints,
+                int skipped) {
+            this.job = job;
+            this.buildNumber = buildNumber;
+            this.full = full;
+            this.identifiers = Collections.unmodifiableList(identifiers);
+            this.fingerprints = fingerprints;
+            this.skipped = skipped;
+        }
+
+        public String getJob() {
+            return job;
+        }
+
+        public int getBuildNumber() {
+            return buildNumber;
+        }
+
+        public boolean isFull() {
+            return full;
+        }
+
+        public List<String> getIdentifiers() {
+            return identifiers;
+        }
+
+        public int getSkipped() {
+            return skipped;
+        }
+    }
+}
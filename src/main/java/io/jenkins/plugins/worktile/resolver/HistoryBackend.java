@@ -0,0 +1,39 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import org.eclipse.jgit.lib.ObjectId;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Reads the commits of {@code until} minus {@code since} on the agent and collects their work item identifiers.
+ * Commits in {@code seen} were already scanned from the changelog, they are walked through but not read.
+ */
+public interface HistoryBackend {
+    void walk(CommitIndex index, WalkBudget budget, CommitWalkResult result, ObjectId until,
+            Collection<ObjectId> since, Set<ObjectId> seen) throws IOException, InterruptedException;
+
+    enum Mode {
+        AUTO("Detect by repository size"), JGIT("JGit"), CLI("Command line git");
+
+        private final String displayName;
+
+        Mode(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        public static Mode of(String value) {
+            for (Mode mode : values()) {
+                if (mode.name().equalsIgnoreCase(value)) {
+                    return mode;
+                }
+            }
+            return AUTO;
+        }
+    }
+}
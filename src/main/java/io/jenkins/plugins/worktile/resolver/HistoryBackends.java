@@ -0,0 +1,125 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import org.eclipse.jgit.lib.Repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+public final class HistoryBackends {
+    private static final Logger logger = Logger.getLogger(HistoryBackends.class.getName());
+
+    public static final long CLI_THRESHOLD = Long.getLong(HistoryBackends.class.getName() + ".cliThreshold",
+            1024L * 1024 * 1024);
+
+    private HistoryBackends() {
+    }
+
+    public static HistoryBackend open(Settings settings, File gitDir, Repository repository) {
+        HistoryBackend jgit = new JGitHistoryBackend(repository);
+        switch (settings.getMode()) {
+            case JGIT:
+                return jgit;
+            case CLI:
+                return new CliHistoryBackend(gitDir, settings.getGitExe());
+            default:
+                if (packSize(gitDir) < CLI_THRESHOLD) {
+                    return jgit;
+                }
+                logger.fine("use command line git for " + gitDir);
+                HistoryBackend cli = new CliHistoryBackend(gitDir, settings.getGitExe());
+                // detected, not chosen: fall back to JGit when no usable git executable is installed
+                return (index, budget, result, until, since, seen) -> {
+                    try {
+                        cli.walk(index, budget, result, until, since, seen);
+                    } catch (IOException e) {
+                        logger.fine("command line git failed, use JGit: " + e.getMessage());
+                        jgit.walk(index, budget, result, until, since, seen);
+                    }
+                };
+        }
+    }
+
+    static long packSize(File gitDir) {
+        File[] packs = new File(gitDir, "objects/pack").listFiles((dir, name) -> name.endsWith(".pack"));
+        long size = 0;
+        if (packs != null) {
+            for (File pack : packs) {
+                size += pack.length();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Controller-side choices shipped to the agent with each callback.
+     */
+    public static class Settings implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        public static final int DEFAULT_CONCURRENT_WALKS = 4;
+
+        private final WalkBudget budget;
+        private final HistoryBackend.Mode mode;
+        private final String gitExe;
+        private final int concurrentWalks;
+        private final int windowCacheMb;
+        private final boolean trackAssociations;
+        private final Pattern pattern;
+
+        public Settings(WalkBudget budget, HistoryBackend.Mode mode, String gitExe) {
+            this(budget, mode, gitExe, DEFAULT_CONCURRENT_WALKS, 0);
+        }
+
+        public Settings(WalkBudget budget, HistoryBackend.Mode mode, String gitExe, int concurrentWalks,
+                int windowCacheMb) {
+            this(budget, mode, gitExe, concurrentWalks, windowCacheMb, false);
+        }
+
+        public Settings(WalkBudget budget, HistoryBackend.Mode mode, String gitExe, int concurrentWalks,
+                int windowCacheMb, boolean trackAssociations) {
+            this(budget, mode, gitExe, concurrentWalks, windowCacheMb, trackAssociations, WorkItemResolver.pattern);
+        }
+
+        public Settings(WalkBudget budget, HistoryBackend.Mode mode, String gitExe, int concurrentWalks,
+                int windowCacheMb, boolean trackAssociations, Pattern pattern) {
+            this.budget = budget;
+            this.mode = mode;
+            this.gitExe = gitExe;
+            this.concurrentWalks = concurrentWalks > 0 ? concurrentWalks : DEFAULT_CONCURRENT_WALKS;
+            this.windowCacheMb = windowCacheMb;
+            this.trackAssociations = trackAssociations;
+            this.pattern = pattern;
+        }
+
+        public WalkBudget getBudget() {
+            return budget;
+        }
+
+        public HistoryBackend.Mode getMode() {
+            return mode;
+        }
+
+        public String getGitExe() {
+            return gitExe;
+        }
+
+        public int getConcurrentWalks() {
+            return concurrentWalks;
+        }
+
+        public int getWindowCacheMb() {
+            return windowCacheMb;
+        }
+
+        public boolean isTrackAssociations() {
+            return trackAssociations;
+        }
+
+        public Pattern getPattern() {
+            return pattern;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import com.cloudbees.hudson.plugins.folder.AbstractFolder;
+import hudson.model.ItemGroup;
+import hudson.model.Job;
+import io.jenkins.plugins.worktile.WorkItemPatternFolderProperty;
+import io.jenkins.plugins.worktile.WorkItemPatternProperty;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Work item identifier pattern of a job: its own property, else the nearest folder's, else the default. Patterns
+ * are compiled once and shared across builds in a bounded cache keyed by their source.
+ */
+public final class IdentifierPatterns {
+    static final int CACHE_SIZE = 64;
+
+    private static final Map<String, Pattern> cache = new LinkedHashMap<String, Pattern>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Pattern> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private IdentifierPatterns() {
+    }
+
+    public static Pattern forJob(Job<?, ?> job) {
+        if (job == null) {
+            return WorkItemResolver.pattern;
+        }
+        WorkItemPatternProperty property = job.getProperty(WorkItemPatternProperty.class);
+        if (property != null && property.getPattern() != null) {
+            return compile(property.getPattern());
+        }
+        for (ItemGroup<?> group = job.getParent(); group instanceof AbstractFolder; ) {
+            AbstractFolder<?> folder = (AbstractFolder<?>) group;
+            WorkItemPatternFolderProperty folderProperty = folder.getProperties()
+                    .get(WorkItemPatternFolderProperty.class);
+            if (folderProperty != null && folderProperty.getPattern() != null) {
+                return compile(folderProperty.getPattern());
+            }
+            group = folder.getParent();
+        }
+        return WorkItemResolver.pattern;
+    }
+
+    /**
+     * Returns the compiled pattern, or the default one when {@code source} no longer compiles.
+     */
+    public static Pattern compile(String source) {
+        synchronized (cache) {
+            Pattern pattern = cache.get(source);
+            if (pattern == null) {
+                try {
+                    pattern = Pattern.compile(source);
+                } catch (PatternSyntaxException e) {
+                    pattern = WorkItemResolver.pattern;
+                }
+                cache.put(source, pattern);
+            }
+            return pattern;
+        }
+    }
+
+    /**
+     * Returns why {@code source} cannot be used as an identifier pattern, or null when it can.
+     */
+    public static String validate(String source) {
+        try {
+            Pattern pattern = Pattern.compile(source);
+            if (pattern.matcher("").find()) {
+                return "The pattern must not match an empty string";
+            }
+            return null;
+        } catch (PatternSyntaxException e) {
+            return e.getDescription() + " near index " + e.getIndex();
+        }
+    }
+}
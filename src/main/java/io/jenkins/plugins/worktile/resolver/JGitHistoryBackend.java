@@ -0,0 +1,22 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
+
+public class JGitHistoryBackend implements HistoryBackend {
+    private final Repository repository;
+
+    public JGitHistoryBackend(Repository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void walk(CommitIndex index, WalkBudget budget, CommitWalkResult result, ObjectId until,
+            Collection<ObjectId> since, Set<ObjectId> seen) throws IOException, InterruptedException {
+        CommitWalker.walk(repository, index, budget, result, until, since, seen);
+    }
+}
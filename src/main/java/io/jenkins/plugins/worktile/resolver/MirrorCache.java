@@ -0,0 +1,280 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import com.cloudbees.plugins.credentials.CredentialsProvider;
+import com.cloudbees.plugins.credentials.common.StandardUsernameCredentials;
+import com.cloudbees.plugins.credentials.domains.URIRequirementBuilder;
+import hudson.EnvVars;
+import hudson.Extension;
+import hudson.model.AsyncPeriodicWork;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.plugins.git.GitSCM;
+import hudson.plugins.git.GitTool;
+import hudson.plugins.git.Revision;
+import hudson.plugins.git.UserRemoteConfig;
+import hudson.plugins.git.util.BuildData;
+import hudson.scm.SCM;
+import io.jenkins.plugins.worktile.WTGlobalConfiguration;
+import io.jenkins.plugins.worktile.WTHelper;
+import jenkins.model.Jenkins;
+import jenkins.scm.RunWithSCM;
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.transport.URIish;
+import org.jenkinsci.plugins.gitclient.Git;
+import org.jenkinsci.plugins.gitclient.GitClient;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Optional controller-side cache of bare mirrors. History is then walked on the controller, with no agent
+ * round trips, and still resolves after the agent or the workspace is gone. Mirrors are fetched
+ * incrementally and pruned least recently used first once they exceed the disk budget, by a periodic task that
+ * skips the mirrors being fetched or walked.
+ */
+public final class MirrorCache {
+    private static final Logger logger = Logger.getLogger(MirrorCache.class.getName());
+
+    public static final String LAST_USED = "pingcode-last-used";
+
+    public static final String LAST_FETCHED = "pingcode-last-fetched";
+
+    static final long FETCH_INTERVAL = 60 * 1000L;
+
+    private static final List<RefSpec> REFSPECS = Arrays.asList(
+            new RefSpec("+refs/heads/*:refs/remotes/origin/*"),
+            new RefSpec("+refs/tags/*:refs/tags/*"),
+            new RefSpec("+refs/pull/*:refs/remotes/origin/pr/*"));
+
+    private static final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private MirrorCache() {
+    }
+
+    public static File root() {
+        return new File(Jenkins.get().getRootDir(), "caches/pingcode-mirrors");
+    }
+
+    /**
+     * Fetches the mirror of the run's first git remote and returns it, or null when the run has no git remote
+     * or the fetch fails. The mirror is not pruned until the caller closes it, on the thread that prepared it.
+     */
+    public static Mirror prepare(RunWithSCM<?, ?> scmRun, Run<?, ?> run, EnvVars env, TaskListener listener)
+            throws InterruptedException {
+        for (SCM scm : scmRun.getSCMs()) {
+            if (!(scm instanceof GitSCM)) {
+                continue;
+            }
+            for (UserRemoteConfig remote : ((GitSCM) scm).getUserRemoteConfigs()) {
+                if (remote.getUrl() == null) {
+                    continue;
+                }
+                try {
+                    return fetch(run, env, listener, remote);
+                } catch (IOException | RuntimeException e) {
+                    logger.log(Level.FINE, "unable to mirror " + remote.getUrl(), e);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Mirror fetch(Run<?, ?> run, EnvVars env, TaskListener listener, UserRemoteConfig remote)
+            throws IOException, InterruptedException {
+        String url = remote.getUrl();
+        File dir;
+        try {
+            dir = new File(root(), WTHelper.md5(url) + ".git");
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+        String head = builtRevision(run, url);
+        Entry entry = entries.computeIfAbsent(dir.getName(), name -> new Entry());
+        entry.lock.readLock().lockInterruptibly();
+        try {
+            synchronized (entry) {
+                GitTool tool = GitTool.getDefaultInstallation();
+                GitClient client = Git.with(listener, env).in(dir).using(tool == null ? "git" : tool.getGitExe())
+                        .getClient();
+                if (remote.getCredentialsId() != null) {
+                    StandardUsernameCredentials credentials = CredentialsProvider.findCredentialById(
+                            remote.getCredentialsId(), StandardUsernameCredentials.class, run,
+                            URIRequirementBuilder.fromUri(url).build());
+                    if (credentials != null) {
+                        client.addDefaultCredentials(credentials);
+                    }
+                }
+                File lastFetched = new File(dir, LAST_FETCHED);
+                boolean fetched = false;
+                if (!new File(dir, "objects").isDirectory()) {
+                    FileUtils.forceMkdir(dir);
+                    client.init_().workspace(dir.getAbsolutePath()).bare(true).execute();
+                    fetch(client, url);
+                    fetched = true;
+                } else if (needsFetch(dir, head, lastFetched)) {
+                    fetch(client, url);
+                    fetched = true;
+                }
+                if (fetched) {
+                    FileUtils.touch(lastFetched);
+                }
+                if (fetched || entry.size < 0) {
+                    // only the mirror that changed is measured, the pruning task sums the sizes kept here
+                    entry.size = FileUtils.sizeOfDirectory(dir);
+                }
+                // orders pruning only, the fetch interval runs from LAST_FETCHED
+                FileUtils.touch(new File(dir, LAST_USED));
+            }
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            entry.lock.readLock().unlock();
+            throw e;
+        }
+        return new Mirror(dir, head, entry);
+    }
+
+    private static void fetch(GitClient client, String url) throws IOException, InterruptedException {
+        try {
+            client.fetch_().from(new URIish(url), REFSPECS).prune(true).execute();
+        } catch (Exception e) {
+            throw new IOException("fetch " + url + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean needsFetch(File dir, String head, File lastFetched) {
+        if (head != null && ObjectId.isId(head)) {
+            try (FileRepository repository = AgentResolverService.get().open(dir)) {
+                if (!repository.getObjectDatabase().has(ObjectId.fromString(head))) {
+                    return true;
+                }
+            } catch (IOException e) {
+                return true;
+            }
+        }
+        // tags and target branches move without the built revision changing
+        return System.currentTimeMillis() - lastFetched.lastModified() > FETCH_INTERVAL;
+    }
+
+    private static String builtRevision(Run<?, ?> run, String url) {
+        for (BuildData data : run.getActions(BuildData.class)) {
+            if (data.getRemoteUrls().contains(url)) {
+                Revision revision = data.getLastBuiltRevision();
+                return revision == null ? null : revision.getSha1String();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Deletes the least recently used mirrors until the cache fits {@code budgetMb}. A mirror being fetched or
+     * walked is skipped, its pooled repository is closed along with it.
+     */
+    static void prune(long budgetMb) {
+        File[] mirrors = root().listFiles(File::isDirectory);
+        if (mirrors == null || budgetMb <= 0) {
+            return;
+        }
+        List<File> candidates = new ArrayList<>(Arrays.asList(mirrors));
+        candidates.sort(Comparator.comparingLong(dir -> new File(dir, LAST_USED).lastModified()));
+        long total = 0;
+        for (File mirror : candidates) {
+            Entry entry = entries.computeIfAbsent(mirror.getName(), name -> new Entry());
+            if (entry.size < 0) {
+                // left by a previous controller run, measured once
+                entry.size = FileUtils.sizeOfDirectory(mirror);
+            }
+            total += entry.size;
+        }
+        long budget = budgetMb * 1024 * 1024;
+        for (File mirror : candidates) {
+            if (total <= budget) {
+                break;
+            }
+            Entry entry = entries.get(mirror.getName());
+            if (!entry.lock.writeLock().tryLock()) {
+                continue;
+            }
+            try {
+                AgentResolverService.get().close(mirror);
+                FileUtils.deleteDirectory(mirror);
+                total -= entry.size;
+                entry.size = -1;
+                logger.info("pruned git mirror " + mirror.getName());
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "unable to prune git mirror " + mirror, e);
+            } finally {
+                entry.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private volatile long size = -1;
+    }
+
+    /**
+     * Prunes the mirrors to the disk budget every few minutes, off the builds that use them.
+     */
+    @Extension
+    public static final class Pruning extends AsyncPeriodicWork {
+        public Pruning() {
+            super("PingCode git mirror pruning");
+        }
+
+        @Override
+        public long getRecurrencePeriod() {
+            return TimeUnit.MINUTES.toMillis(10);
+        }
+
+        @Override
+        protected void execute(TaskListener listener) {
+            prune(WTGlobalConfiguration.get().getMirrorCacheBudgetMb());
+        }
+    }
+
+    /**
+     * A prepared mirror, closing it lets the mirror be pruned again.
+     */
+    public static final class Mirror implements Closeable {
+        private final File gitDir;
+        private final String head;
+        private final Entry entry;
+        private boolean closed;
+
+        Mirror(File gitDir, String head, Entry entry) {
+            this.gitDir = gitDir;
+            this.head = head;
+            this.entry = entry;
+        }
+
+        public File getGitDir() {
+            return gitDir;
+        }
+
+        public String getHead() {
+            return head;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                entry.lock.readLock().unlock();
+            }
+        }
+    }
+}
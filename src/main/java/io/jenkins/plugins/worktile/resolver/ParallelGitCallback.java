@@ -0,0 +1,64 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import hudson.FilePath.FileCallable;
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs one git callback per checkout found in the workspace, in parallel on a bounded fork-join pool on the
+ * agent, so a multi-repository build costs about as much as its slowest repository.
+ */
+public class ParallelGitCallback extends MasterToSlaveFileCallable<Map<String, CommitWalkResult>> {
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = Logger.getLogger(ParallelGitCallback.class.getName());
+
+    private final LinkedHashMap<String, FileCallable<CommitWalkResult>> callbacks;
+    private final int parallelism;
+
+    public ParallelGitCallback(LinkedHashMap<String, FileCallable<CommitWalkResult>> callbacks, int parallelism) {
+        this.callbacks = callbacks;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    @Override
+    public Map<String, CommitWalkResult> invoke(File root, VirtualChannel channel)
+            throws IOException, InterruptedException {
+        Map<String, CommitWalkResult> results = new LinkedHashMap<>();
+        if (callbacks.size() == 1) {
+            Map.Entry<String, FileCallable<CommitWalkResult>> only = callbacks.entrySet().iterator().next();
+            results.put(only.getKey(), only.getValue().invoke(new File(root, only.getKey()), channel));
+            return results;
+        }
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, callbacks.size()));
+        try {
+            Map<String, ForkJoinTask<CommitWalkResult>> tasks = new LinkedHashMap<>();
+            callbacks.forEach((dir, callback) -> tasks.put(dir,
+                    pool.submit(() -> callback.invoke(new File(root, dir), channel))));
+            for (Map.Entry<String, ForkJoinTask<CommitWalkResult>> task : tasks.entrySet()) {
+                try {
+                    results.put(task.getKey(), task.getValue().get());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof InterruptedException) {
+                        throw (InterruptedException) e.getCause();
+                    }
+                    logger.log(Level.FINE, "resolve " + task.getKey() + " failed", e.getCause());
+                    results.put(task.getKey(), new CommitWalkResult());
+                }
+            }
+        } finally {
+            // interrupts the remaining walks, they close their repositories as they unwind
+            pool.shutdownNow();
+        }
+        return results;
+    }
+}
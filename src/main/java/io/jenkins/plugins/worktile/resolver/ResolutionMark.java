@@ -0,0 +1,67 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The last commit of a ref whose work items were delivered in a scope: {@link #BUILD} for build records or
+ * {@code deploy:<environment>} for the deploy records of one environment.
+ */
+public class ResolutionMark implements Serializable {
+    private static final long serialVersionUID = 2L;
+
+    public static final String BUILD = "build";
+
+    private final String job;
+    private final String scope;
+    private final String ref;
+    private final String commit;
+
+    public ResolutionMark(String job, String scope, String ref, String commit) {
+        this.job = job;
+        this.scope = scope;
+        this.ref = ref;
+        this.commit = commit;
+    }
+
+    public static String deployScope(String environmentName) {
+        return "deploy:" + (environmentName == null ? "" : environmentName);
+    }
+
+    /**
+     * Returns the marks of {@code marks} in {@code scope}.
+     */
+    public static List<ResolutionMark> inScope(Collection<ResolutionMark> marks, String scope) {
+        List<ResolutionMark> selected = new ArrayList<>();
+        if (marks != null) {
+            for (ResolutionMark mark : marks) {
+                if (mark.scope.equals(scope)) {
+                    selected.add(mark);
+                }
+            }
+        }
+        return selected;
+    }
+
+    static String key(String scope, String ref) {
+        return scope + "|" + ref;
+    }
+
+    public String getJob() {
+        return job;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    public String getRef() {
+        return ref;
+    }
+
+    public String getCommit() {
+        return commit;
+    }
+}
@@ -0,0 +1,110 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import hudson.XmlFile;
+import hudson.model.Job;
+import jenkins.model.Jenkins;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Per-job record of the last commit whose work items were delivered, keyed by {@link ResolutionMark} scope and
+ * ref (branch, PR or tags). Stored in the job directory so it follows renames and is removed with the job.
+ */
+public final class ResolutionMarks {
+    private static final Logger logger = Logger.getLogger(ResolutionMarks.class.getName());
+
+    public static final String FILE_NAME = "pingcode-marks.xml";
+
+    private static final Object lock = new Object();
+
+    private ResolutionMarks() {
+    }
+
+    /**
+     * Returns the commit {@code ref} was last delivered at in every one of {@code scopes}, or null when a scope
+     * has no mark for it or the scopes were last delivered at different commits.
+     */
+    public static String lookup(Job<?, ?> job, Collection<String> scopes, String ref) {
+        synchronized (lock) {
+            return load(job).lookup(scopes, ref);
+        }
+    }
+
+    public static void advance(Collection<ResolutionMark> marks) {
+        if (marks == null || marks.isEmpty()) {
+            return;
+        }
+        String jobName = marks.iterator().next().getJob();
+        Job<?, ?> job = Jenkins.get().getItemByFullName(jobName, Job.class);
+        if (job == null) {
+            return;
+        }
+        synchronized (lock) {
+            Store store = load(job);
+            store.advance(marks);
+            try {
+                file(job).write(store);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "unable to save resolution marks of " + jobName, e);
+            }
+        }
+    }
+
+    private static Store load(Job<?, ?> job) {
+        XmlFile file = file(job);
+        if (file.exists()) {
+            try {
+                Object stored = file.read();
+                if (stored instanceof Store) {
+                    return (Store) stored;
+                }
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "unable to read resolution marks of " + job.getFullName(), e);
+            }
+        }
+        return new Store();
+    }
+
+    private static XmlFile file(Job<?, ?> job) {
+        return new XmlFile(Jenkins.XSTREAM2, new File(job.getRootDir(), FILE_NAME));
+    }
+
+    public static class Store {
+        private Map<String, String> commits;
+
+        String lookup(Collection<String> scopes, String ref) {
+            String shared = null;
+            for (String scope : scopes) {
+                String commit = commits().get(ResolutionMark.key(scope, ref));
+                if (commit == null || shared != null && !shared.equals(commit)) {
+                    return null;
+                }
+                shared = commit;
+            }
+            return shared;
+        }
+
+        void advance(Collection<ResolutionMark> marks) {
+            // marks saved before they were scoped bounded every walk of the job, they are not used any more
+            commits().keySet().removeIf(key -> key.indexOf('|') < 0);
+            for (ResolutionMark mark : marks) {
+                if (mark.getCommit() != null) {
+                    commits().put(ResolutionMark.key(mark.getScope(), mark.getRef()), mark.getCommit());
+                }
+            }
+        }
+
+        private Map<String, String> commits() {
+            if (commits == null) {
+                commits = new HashMap<>();
+            }
+            return commits;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevObject;
+import org.eclipse.jgit.revwalk.RevSort;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.logging.Logger;
+
+/**
+ * Picks the current and previous release tags. Every tag is peeled and its commit time read once (or taken
+ * from {@link CommitTimeCache}), and the two newest commits are kept in a bounded heap instead of sorting
+ * all tags. In describe mode the previous tag is the nearest tagged ancestor of the current one.
+ */
+public final class TagRangeResolver {
+    private static final Logger logger = Logger.getLogger(TagRangeResolver.class.getName());
+
+    public static final int MAX_DESCRIBE_DEPTH = 10000;
+
+    private static final Comparator<TaggedCommit> ORDER = Comparator.comparingInt((TaggedCommit t) -> t.time)
+            .thenComparing(t -> t.name);
+
+    private TagRangeResolver() {
+    }
+
+    public static TagRange resolve(Repository repository, File gitDir, boolean describe) throws IOException {
+        List<Ref> refs = repository.getRefDatabase().getRefsByPrefix(Constants.R_TAGS);
+        if (refs.isEmpty()) {
+            return null;
+        }
+        PriorityQueue<TaggedCommit> newest = new PriorityQueue<>(3, ORDER);
+        Map<ObjectId, String> tagged = describe ? new HashMap<>() : null;
+        try (RevWalk walk = new RevWalk(repository); CommitTimeCache times = CommitTimeCache.open(gitDir)) {
+            walk.setRetainBody(false);
+            for (Ref ref : refs) {
+                TaggedCommit tag = read(repository, walk, times, ref);
+                if (tag == null) {
+                    continue;
+                }
+                if (tagged != null) {
+                    tagged.merge(tag.commit, tag.name, (a, b) -> a.compareTo(b) >= 0 ? a : b);
+                }
+                offer(newest, tag);
+            }
+        }
+        if (newest.isEmpty()) {
+            return null;
+        }
+        TaggedCommit previous = newest.size() > 1 ? newest.poll() : null;
+        TaggedCommit current = newest.poll();
+        if (describe) {
+            TaggedCommit ancestor = nearestTaggedAncestor(repository, current.commit, tagged);
+            if (ancestor != null) {
+                previous = ancestor;
+            }
+        }
+        return new TagRange(current.name, current.commit, previous == null ? null : previous.name,
+                previous == null ? null : previous.commit);
+    }
+
+    private static void offer(PriorityQueue<TaggedCommit> newest, TaggedCommit tag) {
+        for (TaggedCommit kept : newest) {
+            if (kept.commit.equals(tag.commit)) {
+                if (ORDER.compare(tag, kept) > 0) {
+                    newest.remove(kept);
+                    newest.offer(tag);
+                }
+                return;
+            }
+        }
+        newest.offer(tag);
+        if (newest.size() > 2) {
+            newest.poll();
+        }
+    }
+
+    private static TaggedCommit read(Repository repository, RevWalk walk, CommitTimeCache times, Ref ref)
+            throws IOException {
+        Ref peeled = ref.isPeeled() ? ref : repository.getRefDatabase().peel(ref);
+        ObjectId id = peeled.getPeeledObjectId() != null ? peeled.getPeeledObjectId() : peeled.getObjectId();
+        if (id == null) {
+            return null;
+        }
+        int time = times.get(id);
+        if (time != CommitTimeCache.MISSING) {
+            return new TaggedCommit(ref.getName(), id, time);
+        }
+        RevObject object;
+        try {
+            object = walk.peel(walk.parseAny(id));
+        } catch (IOException e) {
+            logger.fine("skip tag " + ref.getName() + ": " + e.getMessage());
+            return null;
+        }
+        if (!(object instanceof RevCommit)) {
+            return null;
+        }
+        RevCommit commit = (RevCommit) object;
+        times.put(commit, commit.getCommitTime());
+        return new TaggedCommit(ref.getName(), commit.copy(), commit.getCommitTime());
+    }
+
+    private static TaggedCommit nearestTaggedAncestor(Repository repository, ObjectId start,
+            Map<ObjectId, String> tagged) throws IOException {
+        try (RevWalk walk = new RevWalk(repository)) {
+            walk.setRetainBody(false);
+            walk.sort(RevSort.COMMIT_TIME_DESC);
+            RevCommit head = walk.parseCommit(start);
+            for (RevCommit parent : head.getParents()) {
+                walk.markStart(walk.parseCommit(parent));
+            }
+            int depth = 0;
+            for (RevCommit commit : walk) {
+                String name = tagged.get(commit);
+                if (name != null) {
+                    return new TaggedCommit(name, commit.copy(), commit.getCommitTime());
+                }
+                if (++depth >= MAX_DESCRIBE_DEPTH) {
+                    break;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static final class TaggedCommit {
+        private final String name;
+        private final ObjectId commit;
+        private final int time;
+
+        private TaggedCommit(String name, ObjectId commit, int time) {
+            this.name = name;
+            this.commit = commit;
+            this.time = time;
+        }
+    }
+
+    public static final class TagRange {
+        private final String currentName;
+        private final ObjectId current;
+        private final String previousName;
+        private final ObjectId previous;
+
+        public TagRange(String currentName, ObjectId current, String previousName, ObjectId previous) {
+            this.currentName = currentName;
+            this.current = current;
+            this.previousName = previousName;
+            this.previous = previous;
+        }
+
+        public String getCurrentName() {
+            return currentName;
+        }
+
+        public ObjectId getCurrent() {
+            return current;
+        }
+
+        public String getPreviousName() {
+            return previousName;
+        }
+
+        public ObjectId getPrevious() {
+            return previous;
+        }
+    }
+}
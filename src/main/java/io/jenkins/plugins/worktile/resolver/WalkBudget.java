@@ -0,0 +1,49 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import java.io.Serializable;
+
+public class WalkBudget implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final int DEFAULT_MAX_COMMITS = 10000;
+    public static final int DEFAULT_MAX_SECONDS = 60;
+
+    private final int maxCommits;
+    private final long maxMillis;
+
+    public WalkBudget(int maxCommits, int maxSeconds) {
+        this.maxCommits = maxCommits > 0 ? maxCommits : DEFAULT_MAX_COMMITS;
+        this.maxMillis = (maxSeconds > 0 ? maxSeconds : DEFAULT_MAX_SECONDS) * 1000L;
+    }
+
+    public int getMaxCommits() {
+        return maxCommits;
+    }
+
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+    public Tracker start() {
+        return new Tracker();
+    }
+
+    public final class Tracker {
+        private final long deadline = System.nanoTime() + maxMillis * 1000000L;
+        private int commits;
+
+        /**
+         * Counts one more commit and tells whether the walk may read it, an aborted build stops the walk here.
+         */
+        public boolean next() throws InterruptedException {
+            if (Thread.interrupted()) {
+                throw new InterruptedException("commit walk aborted");
+            }
+            return ++commits <= maxCommits && System.nanoTime() - deadline < 0;
+        }
+
+        public int getCommits() {
+            return commits;
+        }
+    }
+}
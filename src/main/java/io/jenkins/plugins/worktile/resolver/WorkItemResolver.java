@@ -2,29 +2,35 @@ package io.jenkins.plugins.worktile.resolver;
 
 import hudson.EnvVars;
 import hudson.FilePath;
+import hudson.FilePath.FileCallable;
 import hudson.model.AbstractBuild;
+import hudson.model.Computer;
+import hudson.model.Node;
 import hudson.model.Run;
 import hudson.model.TaskListener;
+import hudson.plugins.git.GitChangeSet;
+import hudson.plugins.git.GitSCM;
+import hudson.plugins.git.GitTool;
+import hudson.plugins.git.extensions.impl.RelativeTargetDirectory;
+import hudson.plugins.git.util.BuildData;
 import hudson.remoting.VirtualChannel;
 import hudson.scm.ChangeLogSet;
 import hudson.scm.ChangeLogSet.Entry;
+import hudson.scm.SCM;
+import io.jenkins.plugins.worktile.WTGlobalConfiguration;
 import io.jenkins.plugins.worktile.WTHelper;
 import io.jenkins.plugins.worktile.WTLogger;
 import jenkins.MasterToSlaveFileCallable;
 import jenkins.scm.RunWithSCM;
-import org.eclipse.jgit.api.Git;
-import org.eclipse.jgit.api.LogCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.internal.storage.file.FileRepository;
 import org.eclipse.jgit.lib.ObjectId;
-import org.eclipse.jgit.lib.Ref;
-import org.eclipse.jgit.revwalk.RevCommit;
-import org.eclipse.jgit.revwalk.RevWalk;
 import org.jenkinsci.plugins.workflow.job.WorkflowRun;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.function.Function;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -34,10 +40,15 @@ public class WorkItemResolver {
     public static final Pattern pattern = Pattern.compile("#[^(\\s|/)]*[A-Za-z0-9_-]{0,15}-[0-9]+");
     public static final String VCSFolder = ".git";
 
-    private final Set<String> collection = new HashSet<>();
+    private final WorkItemSet collection = new WorkItemSet();
+
+    private final Pattern identifierPattern;
+
+    private final HashSet<String> seenCommits = new HashSet<>();
 
     private final WTLogger wtLogger;
     private final Run<?, ?> run;
+    private final EnvVars envVars;
     private final FilePath workspace;
     private final TaskListener listener;
 
@@ -45,6 +56,13 @@ public class WorkItemResolver {
 
     private boolean isChangeSetsExisted = false;
 
+    private final List<ResolutionMark> marks = new ArrayList<>();
+
+    private List<String> markScopes = Collections.singletonList(ResolutionMark.BUILD);
+
+    // upper-cased identifier to its (commit, work item) fingerprints, null unless associations are tracked
+    private Map<String, Set<Long>> associations;
+
     public WorkItemResolver(
             final Run<?, ?> run, final FilePath workspace, final TaskListener listener) {
         this(run, workspace, listener, false);
@@ -52,33 +70,47 @@ public class WorkItemResolver {
 
     public WorkItemResolver(
             final Run<?, ?> run, final FilePath workspace, final TaskListener listener, boolean isTagged) {
+        this(run, run == null ? new EnvVars() : WTHelper.safeEnvVars(run), workspace, listener, isTagged);
+    }
+
+    public WorkItemResolver(final Run<?, ?> run, final EnvVars envVars, final FilePath workspace,
+            final TaskListener listener, boolean isTagged) {
+        this(run, envVars, workspace, new WTLogger(listener), isTagged);
+    }
+
+    public WorkItemResolver(final Run<?, ?> run, final EnvVars envVars, final FilePath workspace,
+            final WTLogger logger, boolean isTagged) {
         this.run = run;
+        this.envVars = envVars;
+        this.identifierPattern = IdentifierPatterns.forJob(run == null ? null : run.getParent());
         this.workspace = workspace;
-        this.listener = listener;
-        this.wtLogger = new WTLogger(this.listener);
+        this.listener = logger.getListener();
+        this.wtLogger = logger;
         this.isTagged = isTagged;
     }
 
-    public List<String> resolve() {
+    public WorkItemSet resolve() throws InterruptedException {
         collection.clear();
+        seenCommits.clear();
+        marks.clear();
+        if (associations != null) {
+            associations.clear();
+        }
 
+        long start = System.nanoTime();
         fromChangeLog();
         fromEnvironment();
 
         try {
             setMessages();
+        } catch (final InterruptedException e) {
+            throw e;
         } catch (final Exception e) {
             wtLogger.info("Extract work items error from message body " + e.getMessage());
         }
 
-        Set<String> sets = new HashSet<>();
-        collection.forEach(item -> {
-            Matcher matcher = pattern.matcher(item);
-            while (matcher.find()) {
-                sets.add(matcher.group().toUpperCase());
-            }
-        });
-        return WTHelper.formatWorkItems(new ArrayList<>(sets));
+        wtLogger.timing("Resolved " + collection.size() + " work items", start);
+        return collection;
     }
 
     @SuppressWarnings("rawtypes")
@@ -91,65 +123,339 @@ public class WorkItemResolver {
         }
 
         final List changeLogSets = scm.getChangeSets();
-        wtLogger.info("SCM change-sets:");
+        int count = 0;
         for (final Object changeLogSet : changeLogSets) {
             for (final Object set : (ChangeLogSet<? extends Entry>) changeLogSet) {
-                final String msg = ((Entry) set).getMsg();
+                final Entry entry = (Entry) set;
+                // the git change set message is only the title, the walk would find identifiers in the body
+                final String msg = entry instanceof GitChangeSet ? ((GitChangeSet) entry).getComment()
+                        : entry.getMsg();
                 if (msg != null) {
-                    wtLogger.info(msg);
                     isChangeSetsExisted = true;
-                    collection.add(msg);
+                    count++;
+                    if (entry.getCommitId() != null && entry instanceof GitChangeSet) {
+                        seenCommits.add(entry.getCommitId());
+                    }
+                    collect(msg, entry.getCommitId());
                 }
             }
         }
-        wtLogger.info("");
+        wtLogger.info("SCM change-sets: " + count + " commits");
     }
 
     public void fromEnvironment() {
-        final EnvVars envVars = WTHelper.safeEnvVars(run);
-        if (envVars.get("GIT_BRANCH") != null) {
-            collection.add(envVars.get("GIT_BRANCH"));
+        collect(envVars.get("GIT_BRANCH"), null);
+        collect(envVars.get("ghprbSourceBranch"), null);
+        collect(envVars.get("ghprbPullTitle"), null);
+        collect(envVars.get("ghprbCommentBody"), null);
+    }
+
+    private void collect(String text, String commit) {
+        if (text == null) {
+            return;
         }
-        if (envVars.get("ghprbSourceBranch") != null) {
-            collection.add(envVars.get("ghprbSourceBranch"));
+        Matcher matcher = identifierPattern.matcher(text);
+        while (matcher.find()) {
+            collection.add(text, matcher.start(), matcher.end());
+            if (associations != null) {
+                String identifier = matcher.group();
+                associate(identifier, AssociationFilter.fingerprint(commit == null ? "" : commit, identifier));
+            }
         }
-        if (envVars.get("ghprbPullTitle") != null) {
-            collection.add(envVars.get("ghprbPullTitle"));
+    }
+
+    private void associate(String identifier, long fingerprint) {
+        String key = (identifier.startsWith("#") ? identifier.substring(1) : identifier).toUpperCase();
+        associations.computeIfAbsent(key, k -> new HashSet<>()).add(fingerprint);
+    }
+
+    /**
+     * Tracks which commit each work item was found in, so that {@link #selectUndelivered(int)} can leave out
+     * the pairs earlier builds of the job already delivered.
+     */
+    public void setTrackAssociations(boolean trackAssociations) {
+        this.associations = trackAssociations ? new HashMap<>() : null;
+    }
+
+    /**
+     * The {@link ResolutionMark} scopes the work items are resolved for, {@link ResolutionMark#BUILD} by default.
+     * The commits are walked from the mark the scopes share, or from scratch when they do not share one.
+     */
+    public void setMarkScopes(Collection<String> markScopes) {
+        this.markScopes = new ArrayList<>(markScopes);
+    }
+
+    public DeliveredAssociations.Delivery selectUndelivered(int resendInterval) {
+        if (associations == null || run == null) {
+            return null;
         }
-        if (envVars.get("ghprbCommentBody") != null) {
-            collection.add(envVars.get("ghprbCommentBody"));
+        DeliveredAssociations.Delivery delivery = DeliveredAssociations.select(run.getParent(), run.getNumber(),
+                resendInterval, associations);
+        if (delivery.isFull()) {
+            wtLogger.info("Send all " + delivery.getIdentifiers().size() + " work items");
+        } else {
+            wtLogger.info("Send " + delivery.getIdentifiers().size() + " work items with new commits, skip "
+                    + delivery.getSkipped() + " already delivered");
         }
+        return delivery;
     }
 
     public void setMessages() throws IOException, InterruptedException, GitAPIException {
-        if (run == null || workspace == null) {
+        if (run == null) {
             return;
         }
-        final boolean isGit = workspace.child(VCSFolder).exists();
-        if (!isGit) {
-            wtLogger.info("unsupported vcs, current git only");
+        final WTGlobalConfiguration config = WTGlobalConfiguration.get();
+
+        final boolean multiCheckout = isMultiCheckout();
+        // the mirror is kept from pruning for the whole walk
+        try (MirrorCache.Mirror mirror = config.isMirrorCache() && !multiCheckout ? prepareMirror() : null) {
+            walk(config, mirror, multiCheckout);
         }
-        final FilePath gitStoreDir = workspace.child(VCSFolder);
+    }
 
-        final String prActualCommit = run.getEnvironment(TaskListener.NULL).get("ghprbActualCommit");
-        final String branchName = run.getEnvironment(TaskListener.NULL).get("BRANCH_NAME");
+    private void walk(WTGlobalConfiguration config, MirrorCache.Mirror mirror, boolean multiCheckout)
+            throws IOException, InterruptedException {
+        FilePath root = null;
+        List<String> gitDirs = null;
+        String head = null;
+        if (mirror != null) {
+            wtLogger.info("Resolve commits from the controller git mirror");
+            root = new FilePath(mirror.getGitDir().getParentFile());
+            gitDirs = Collections.singletonList(mirror.getGitDir().getName());
+            head = mirror.getHead();
+        }
+        if (root == null) {
+            if (workspace == null) {
+                return;
+            }
+            final boolean isGit = workspace.child(VCSFolder).exists();
+            if (!isGit && !multiCheckout) {
+                wtLogger.info("unsupported vcs, current git only");
+            }
+            root = workspace;
+            gitDirs = multiCheckout ? findGitDirs() : Collections.singletonList(VCSFolder);
+            if (gitDirs.size() > 1) {
+                wtLogger.items("Resolve commits of checkouts", gitDirs);
+            }
+        }
+
+        final String prActualCommit = envVars.get("ghprbActualCommit");
+        final String branchName = envVars.get("BRANCH_NAME");
+        final HistoryBackends.Settings settings = new HistoryBackends.Settings(
+                new WalkBudget(config.getWalkCommitLimit(), config.getWalkTimeLimit()),
+                HistoryBackend.Mode.of(config.getHistoryBackend()), gitExecutable(root, envVars),
+                config.getAgentConcurrentWalks(), config.getAgentWindowCacheMb(), associations != null,
+                identifierPattern);
+        final HashSet<String> seen = new HashSet<>(seenCommits);
+        final String ref;
+        final Function<String, FileCallable<CommitWalkResult>> callbacks;
 
         if (prActualCommit != null) {
-            wtLogger.info("PR rule hit");
-            List<String> messages = gitStoreDir
-                    .act(new GitCommitMessageCallback(listener, ObjectId.fromString(prActualCommit)));
-            collection.addAll(messages);
+            wtLogger.debug("PR rule hit");
+            ref = "pr:" + envVars.get("ghprbPullId", envVars.get("ghprbSourceBranch", ""));
+            callbacks = mark -> new GitCommitMessageCallback(wtLogger, ObjectId.fromString(prActualCommit),
+                    envVars.get("ghprbTargetBranch"), mark, seen, settings);
         } else if (isTagged) {
-            wtLogger.info("Tag rule hit");
-            List<String> messages = gitStoreDir.act(new GitTagsCallback(listener));
-            collection.addAll(messages);
+            wtLogger.debug("Tag rule hit");
+            ref = "tags";
+            callbacks = mark -> new GitTagsCallback(wtLogger, mark, seen, settings,
+                    config.isDescribeTagRange());
         } else if (branchName != null) {
-            wtLogger.info("Branch rule hit");
-            List<String> messages = gitStoreDir.act(new GitBranchCallback(listener, branchName, isChangeSetsExisted));
-            collection.addAll(messages);
+            wtLogger.debug("Branch rule hit");
+            ref = "branch:" + branchName;
+            final String branchHead = head;
+            callbacks = mark -> new GitBranchCallback(wtLogger, branchName, branchHead, isChangeSetsExisted, mark,
+                    seen, settings);
         } else {
-            wtLogger.info("None message logic hit");
+            wtLogger.debug("None message logic hit");
+            return;
+        }
+
+        final List<String> checkouts = gitDirs;
+        LinkedHashMap<String, FileCallable<CommitWalkResult>> perCheckout = new LinkedHashMap<>();
+        for (String gitDir : checkouts) {
+            perCheckout.put(gitDir, callbacks.apply(lookupMark(refOf(ref, gitDir, checkouts))));
+        }
+        Map<String, CommitWalkResult> results = root
+                .act(new ParallelGitCallback(perCheckout, settings.getConcurrentWalks()));
+        results.forEach((gitDir, result) -> accept(refOf(ref, gitDir, checkouts), result));
+    }
+
+    public List<ResolutionMark> getMarks() {
+        return marks;
+    }
+
+    /**
+     * A run checks out several repositories when a git SCM sets a target directory or its build data name more
+     * than one remote; checking out the same remote again, in a stage or a retry, keeps one repository.
+     */
+    private boolean isMultiCheckout() {
+        if (!relativeTargetDirs().isEmpty()) {
+            return true;
+        }
+        List<BuildData> checkouts = run.getActions(BuildData.class);
+        Set<Set<String>> remotes = new HashSet<>();
+        for (BuildData data : checkouts) {
+            if (data.getRemoteUrls().isEmpty()) {
+                if (checkouts.size() > 1) {
+                    wtLogger.info("A checkout has no remote url, resolve commits of every checkout in the workspace");
+                    return true;
+                }
+                continue;
+            }
+            remotes.add(new HashSet<>(data.getRemoteUrls()));
+        }
+        return remotes.size() > 1;
+    }
+
+    private List<String> relativeTargetDirs() {
+        List<String> dirs = new ArrayList<>();
+        RunWithSCM<?, ?> scmRun = toSCMRun();
+        if (scmRun == null) {
+            return dirs;
+        }
+        for (SCM scm : scmRun.getSCMs()) {
+            if (scm instanceof GitSCM) {
+                RelativeTargetDirectory target = ((GitSCM) scm).getExtensions().get(RelativeTargetDirectory.class);
+                if (target != null && target.getRelativeTargetDir() != null) {
+                    dirs.add(target.getRelativeTargetDir() + "/" + VCSFolder);
+                }
+            }
+        }
+        return dirs;
+    }
+
+    private List<String> findGitDirs() throws IOException, InterruptedException {
+        Set<String> dirs = new LinkedHashSet<>();
+        String base = workspace.getRemote().replace('\\', '/');
+        // default excludes would skip every .git directory
+        for (FilePath head : workspace.list(VCSFolder + "/HEAD,*/" + VCSFolder + "/HEAD,*/*/" + VCSFolder + "/HEAD",
+                null, false)) {
+            String path = head.getParent().getRemote().replace('\\', '/');
+            if (path.startsWith(base + "/")) {
+                dirs.add(path.substring(base.length() + 1));
+            }
+        }
+        for (String dir : relativeTargetDirs()) {
+            if (workspace.child(dir).isDirectory()) {
+                dirs.add(dir);
+            }
+        }
+        if (dirs.isEmpty()) {
+            dirs.add(VCSFolder);
         }
+        return new ArrayList<>(dirs);
+    }
+
+    private static String refOf(String ref, String gitDir, List<String> gitDirs) {
+        if (gitDirs.size() == 1 || VCSFolder.equals(gitDir)) {
+            return ref;
+        }
+        return ref + "@" + gitDir.substring(0, Math.max(0, gitDir.length() - VCSFolder.length() - 1));
+    }
+
+    private String lookupMark(String ref) {
+        if (!WTGlobalConfiguration.get().isIncrementalResolution() || markScopes.isEmpty()) {
+            return null;
+        }
+        String commit = ResolutionMarks.lookup(run.getParent(), markScopes, ref);
+        if (commit != null) {
+            wtLogger.info("Resolve commits after " + commit);
+        }
+        return commit;
+    }
+
+    private MirrorCache.Mirror prepareMirror() throws InterruptedException {
+        final RunWithSCM<?, ?> scm = toSCMRun();
+        if (scm == null) {
+            return null;
+        }
+        return MirrorCache.prepare(scm, run, envVars, TaskListener.NULL);
+    }
+
+    private String gitExecutable(FilePath gitStoreDir, EnvVars envVars) {
+        try {
+            GitTool tool = GitTool.getDefaultInstallation();
+            if (tool == null) {
+                return null;
+            }
+            Computer computer = gitStoreDir.toComputer();
+            Node node = computer == null ? null : computer.getNode();
+            if (node != null) {
+                tool = tool.forNode(node, listener);
+            }
+            return tool.forEnvironment(envVars).getGitExe();
+        } catch (IOException e) {
+            logger.fine("unable to resolve git installation: " + e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void accept(String ref, CommitWalkResult result) {
+        wtLogger.debug(ref + ": " + result.getWalked() + " commits walked, " + result.getIdentifiers().size()
+                + " identifiers found");
+        for (CommitWalkResult.Found found : result.getFound()) {
+            collection.addAll(found.getIdentifiers());
+            if (associations != null && found.getCommit() != null) {
+                for (String identifier : found.getIdentifiers()) {
+                    associate(identifier, AssociationFilter.fingerprint(found.getCommit(), identifier));
+                }
+            }
+        }
+        if (result.isTruncated()) {
+            // the mark stays where it was, advancing it would drop the commits beyond the budget for good
+            wtLogger.info("Commit walk of " + ref + " stopped after " + result.getWalked()
+                    + " commits, work items of older commits are not included; its mark is kept, raise the "
+                    + "commit walk limits to include them");
+            return;
+        }
+        if (result.getHead() != null && WTGlobalConfiguration.get().isIncrementalResolution()) {
+            for (String scope : markScopes) {
+                marks.add(new ResolutionMark(run.getParent().getFullName(), scope, ref, result.getHead()));
+            }
+        }
+    }
+
+    public static List<String> extract(Pattern pattern, String text) {
+        if (text == null) {
+            return Collections.emptyList();
+        }
+        List<String> identifiers = null;
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            if (identifiers == null) {
+                identifiers = new ArrayList<>();
+            }
+            identifiers.add(matcher.group());
+        }
+        return identifiers == null ? Collections.emptyList() : identifiers;
+    }
+
+    private static void walk(File gitDir, FileRepository repository, HistoryBackends.Settings settings,
+            Set<String> seen, CommitWalkResult result, ObjectId until, List<ObjectId> since)
+            throws IOException, InterruptedException {
+        CommitWalkResult walked = AgentResolverService.get().walk(gitDir, repository, settings,
+                settings.getPattern(), until, since, seen);
+        result.merge(walked);
+    }
+
+    private static List<ObjectId> toObjectIds(ObjectId first, String mark) {
+        List<ObjectId> ids = new ArrayList<>();
+        if (first != null) {
+            ids.add(first);
+        }
+        ObjectId markId = toObjectId(mark);
+        if (markId != null && !markId.equals(first)) {
+            ids.add(markId);
+        }
+        return ids;
+    }
+
+    private static ObjectId toObjectId(String commit) {
+        return commit == null || !ObjectId.isId(commit) ? null : ObjectId.fromString(commit);
     }
 
     @SuppressWarnings("rawtypes")
@@ -165,143 +471,147 @@ public class WorkItemResolver {
         return runWithScm;
     }
 
-    private static final class GitCommitMessageCallback extends MasterToSlaveFileCallable<List<String>> {
+    private static final class GitCommitMessageCallback extends MasterToSlaveFileCallable<CommitWalkResult> {
         private static final long serialVersionUID = 8799047890954988521L;
-        private final TaskListener listener;
+        private final WTLogger wtLogger;
         private final ObjectId prHeadCommitId;
-
-        public GitCommitMessageCallback(TaskListener listener, ObjectId prHeadCommitId) {
-            this.listener = listener;
+        private final String targetBranch;
+        private final String mark;
+        private final HashSet<String> seen;
+        private final HistoryBackends.Settings settings;
+
+        public GitCommitMessageCallback(WTLogger wtLogger, ObjectId prHeadCommitId, String targetBranch,
+                String mark, HashSet<String> seen, HistoryBackends.Settings settings) {
+            this.wtLogger = wtLogger;
             this.prHeadCommitId = prHeadCommitId;
+            this.targetBranch = targetBranch;
+            this.mark = mark;
+            this.seen = seen;
+            this.settings = settings;
         }
 
         @Override
-        public List<String> invoke(final File file, final VirtualChannel virtualChannel)
+        public CommitWalkResult invoke(final File file, final VirtualChannel virtualChannel)
                 throws IOException, InterruptedException {
-            List<String> messages = new ArrayList<>();
+            CommitWalkResult result = new CommitWalkResult();
             if (!file.exists() || !file.isDirectory()) {
-                return messages;
+                return result;
             }
-            try (FileRepository fileRepository = new FileRepository(file.getAbsolutePath())) {
-                ObjectId currentHeadId = fileRepository.resolve("HEAD~^{commit}");
-                if (currentHeadId == null) {
-                    return messages;
+            try (FileRepository fileRepository = AgentResolverService.get().open(file)) {
+                ObjectId baseId = CommitWalker.mergeBase(fileRepository, prHeadCommitId, targetBranch);
+                if (baseId == null) {
+                    baseId = fileRepository.resolve("HEAD~^{commit}");
+                }
+                if (baseId == null) {
+                    return result;
                 }
-                Git git = new Git(fileRepository);
                 try {
-                    final Iterable<RevCommit> items = git.log().addRange(currentHeadId, prHeadCommitId).call();
-                    for (final RevCommit commit : items) {
-                        if (commit != null) {
-                            messages.add(commit.getFullMessage());
-                        }
-                    }
-                } catch (Exception e) {
-                    listener.getLogger().println("collection message error: " + e.getMessage());
+                    walk(file, fileRepository, settings, seen, result, prHeadCommitId,
+                            toObjectIds(baseId, mark));
+                    result.setHead(prHeadCommitId.name());
+                } catch (IOException | RuntimeException e) {
+                    wtLogger.info("collection message error: " + e.getMessage());
                 }
-                git.close();
-                return messages;
+                return result;
             }
         }
     }
 
-    private static final class GitTagsCallback extends MasterToSlaveFileCallable<List<String>> {
+    private static final class GitTagsCallback extends MasterToSlaveFileCallable<CommitWalkResult> {
         private static final long serialVersionUID = -247109644349075954L;
 
-        private final TaskListener listener;
-
-        public GitTagsCallback(TaskListener listener) {
-            this.listener = listener;
+        private final WTLogger wtLogger;
+        private final String mark;
+        private final HashSet<String> seen;
+        private final HistoryBackends.Settings settings;
+        private final boolean describe;
+
+        public GitTagsCallback(WTLogger wtLogger, String mark, HashSet<String> seen,
+                HistoryBackends.Settings settings, boolean describe) {
+            this.wtLogger = wtLogger;
+            this.mark = mark;
+            this.seen = seen;
+            this.settings = settings;
+            this.describe = describe;
         }
 
         @Override
-        public List<String> invoke(final File file, final VirtualChannel virtualChannel)
+        public CommitWalkResult invoke(final File file, final VirtualChannel virtualChannel)
                 throws IOException, InterruptedException {
-            List<String> messages = new ArrayList<>();
-            WTLogger wtLogger = new WTLogger(listener);
+            CommitWalkResult result = new CommitWalkResult();
             if (!file.exists() || !file.isDirectory()) {
-                return messages;
+                return result;
             }
-            try (FileRepository fileRepository = new FileRepository(file.getAbsolutePath())) {
-                List<Ref> tags = null;
-                Git git = new Git(fileRepository);
-                try {
-                    tags = git.tagList().call();
-                    this.sort(tags, new RevWalk(fileRepository));
-                    if (!tags.isEmpty()) {
-                        Ref tag0 = tags.get(0);
-                        Ref peeledRef0 = fileRepository.getRefDatabase().peel(tag0);
-                        wtLogger.info("current tag = " + tag0.getName());
-                        ObjectId utilId = peeledRef0.getPeeledObjectId() != null ? peeledRef0.getPeeledObjectId()
-                                : tag0.getObjectId();
-
-                        Ref tag1 = tags.get(1);
-                        ObjectId startId = null;
-                        if (tag1 != null) {
-                            wtLogger.info("previous tag = " + tag1.getName());
-                            Ref peeledRef1 = fileRepository.getRefDatabase().peel(tag1);
-                            startId = peeledRef1.getPeeledObjectId() != null ? peeledRef1.getPeeledObjectId()
-                                    : tag1.getObjectId();
-                        }
-
-                        LogCommand log = git.log().addRange(startId, utilId);
-                        Iterable<RevCommit> logs = log.call();
-                        for (RevCommit commit : logs) {
-                            if (commit != null) {
-                                String message = commit.getFullMessage();
-                                if (message != null) {
-                                    messages.add(message);
-                                }
-                            }
-                        }
-                    }
-                } catch (Exception exception) {
-                    wtLogger.error("get commit message in tag error");
+            try (FileRepository fileRepository = AgentResolverService.get().open(file)) {
+                TagRangeResolver.TagRange range = TagRangeResolver.resolve(fileRepository, file, describe);
+                if (range == null) {
+                    wtLogger.info("No tag found");
+                    return result;
                 }
-                git.close();
-            }
-            return messages;
-        }
-
-        private void sort(List<Ref> tags, RevWalk walk) {
-            tags.sort((t1, t2) -> {
-                Date d1;
-                Date d2;
-                try {
-                    d1 = walk.parseCommit(t1.getObjectId()).getCommitterIdent().getWhen();
-                    d2 = walk.parseCommit(t2.getObjectId()).getCommitterIdent().getWhen();
-                    return d2.compareTo(d1);
-                } catch (Exception e) {
-                    logger.info("sort tags error: " + e.getMessage());
+                wtLogger.info("current tag = " + range.getCurrentName());
+                if (range.getPreviousName() != null) {
+                    wtLogger.info("previous tag = " + range.getPreviousName());
                 }
-                return 0;
-            });
+                walk(file, fileRepository, settings, seen, result, range.getCurrent(),
+                        toObjectIds(range.getPrevious(), mark));
+                result.setHead(range.getCurrent().name());
+            } catch (IOException | RuntimeException exception) {
+                wtLogger.error("get commit message in tag error: " + exception.getMessage());
+            }
+            return result;
         }
     }
 
-    private static final class GitBranchCallback extends MasterToSlaveFileCallable<List<String>> {
+    private static final class GitBranchCallback extends MasterToSlaveFileCallable<CommitWalkResult> {
         private static final long serialVersionUID = -247109644349075954L;
-        private final TaskListener listener;
+        private final WTLogger wtLogger;
         private final String branchName;
+        private final String head;
         private final boolean isChangeSetsExisted;
-
-        public GitBranchCallback(TaskListener listener, String branchName, boolean isChangeSetsExisted) {
-            this.listener = listener;
+        private final String mark;
+        private final HashSet<String> seen;
+        private final HistoryBackends.Settings settings;
+
+        public GitBranchCallback(WTLogger wtLogger, String branchName, String head,
+                boolean isChangeSetsExisted, String mark, HashSet<String> seen,
+                HistoryBackends.Settings settings) {
+            this.wtLogger = wtLogger;
             this.branchName = branchName;
+            this.head = head;
             this.isChangeSetsExisted = isChangeSetsExisted;
+            this.mark = mark;
+            this.seen = seen;
+            this.settings = settings;
         }
 
         @Override
-        public List<String> invoke(final File file, final VirtualChannel virtualChannel)
+        public CommitWalkResult invoke(final File file, final VirtualChannel virtualChannel)
                 throws IOException, InterruptedException {
-            List<String> messages = new ArrayList<>();
-            WTLogger wtLogger = new WTLogger(listener);
+            CommitWalkResult result = new CommitWalkResult();
             if (!file.exists() || !file.isDirectory()) {
-                return messages;
+                return result;
             }
-            if (isChangeSetsExisted == true) {
-                wtLogger.info("Ignore branch commits");
+            try (FileRepository fileRepository = AgentResolverService.get().open(file)) {
+                ObjectId headId = head != null ? toObjectId(head) : fileRepository.resolve("HEAD^{commit}");
+                if (headId == null) {
+                    return result;
+                }
+                if (toObjectId(mark) == null) {
+                    if (isChangeSetsExisted == true) {
+                        wtLogger.info("Ignore branch commits");
+                    }
+                    result.setHead(headId.name());
+                    return result;
+                }
+                try {
+                    walk(file, fileRepository, settings, seen, result, headId, toObjectIds(null, mark));
+                    // a failed walk keeps the previous mark, the commits it did not read are walked again next time
+                    result.setHead(headId.name());
+                } catch (IOException | RuntimeException e) {
+                    wtLogger.info("collect branch " + branchName + " commits error: " + e.getMessage());
+                }
             }
-            return messages;
+            return result;
         }
     }
 }
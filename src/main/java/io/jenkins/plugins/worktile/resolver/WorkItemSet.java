@@ -0,0 +1,194 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set of upper-cased work item identifiers such as {@code PLM-123}. The project prefix is interned to an int
+ * and packed with the number into a long kept in an open-addressing table, so no string is held per
+ * identifier until {@link #toArray()}. Numbers with leading zeros or beyond 32 bits are kept as strings.
+ */
+public class WorkItemSet {
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private final List<String> prefixes = new ArrayList<>();
+    private final Map<String, Integer> prefixIds = new HashMap<>();
+    private final Set<String> others = new HashSet<>();
+
+    private long[] table = new long[16];
+    private int size;
+
+    private String lastPrefix;
+    private int lastPrefixId;
+
+    /**
+     * Adds an identifier, a leading {@code #} is ignored.
+     */
+    public void add(String identifier) {
+        if (identifier != null) {
+            add(identifier, 0, identifier.length());
+        }
+    }
+
+    /**
+     * Adds the identifier at {@code [start, end)} of {@code source}, usually a pattern match in a message.
+     */
+    public void add(String source, int start, int end) {
+        if (start < end && source.charAt(start) == '#') {
+            start++;
+        }
+        long key = pack(source, start, end, true);
+        if (key != 0) {
+            insert(key);
+        } else if (start < end) {
+            others.add(source.substring(start, end).toUpperCase());
+        }
+    }
+
+    public void addAll(Iterable<String> identifiers) {
+        for (String identifier : identifiers) {
+            add(identifier);
+        }
+    }
+
+    public boolean contains(String identifier) {
+        int start = identifier.startsWith("#") ? 1 : 0;
+        long key = pack(identifier, start, identifier.length(), false);
+        if (key == 0) {
+            return others.contains(identifier.substring(start).toUpperCase());
+        }
+        return key > 0 && find(key) >= 0;
+    }
+
+    public int size() {
+        return size + others.size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+        size = 0;
+        others.clear();
+    }
+
+    /**
+     * Creates the identifier strings, in no particular order.
+     */
+    public String[] toArray() {
+        String[] identifiers = new String[size()];
+        int i = 0;
+        for (long key : table) {
+            if (key != 0) {
+                identifiers[i++] = prefixes.get((int) (key >>> 32) - 1) + '-' + (key & 0xFFFFFFFFL);
+            }
+        }
+        for (String other : others) {
+            identifiers[i++] = other;
+        }
+        return identifiers;
+    }
+
+    public List<String> toList() {
+        return Arrays.asList(toArray());
+    }
+
+    /**
+     * Returns the packed key, 0 when the identifier has no plain number, or -1 for an unknown prefix
+     * when {@code intern} is off.
+     */
+    private long pack(String source, int start, int end, boolean intern) {
+        int dash = source.lastIndexOf('-', end - 1);
+        int digits = end - dash - 1;
+        if (dash < start || digits == 0 || digits > 10 || (digits > 1 && source.charAt(dash + 1) == '0')) {
+            return 0;
+        }
+        long number = 0;
+        for (int i = dash + 1; i < end; i++) {
+            char c = source.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+            number = number * 10 + (c - '0');
+        }
+        if (number > 0xFFFFFFFFL) {
+            return 0;
+        }
+        int prefixId = prefixId(source, start, dash, intern);
+        return prefixId == 0 ? -1 : ((long) prefixId << 32) | number;
+    }
+
+    private int prefixId(String source, int start, int end, boolean intern) {
+        int length = end - start;
+        if (lastPrefix != null && lastPrefix.length() == length
+                && lastPrefix.regionMatches(true, 0, source, start, length)) {
+            return lastPrefixId;
+        }
+        String prefix = source.substring(start, end).toUpperCase();
+        Integer id = prefixIds.get(prefix);
+        if (id == null) {
+            if (!intern) {
+                return 0;
+            }
+            prefixes.add(prefix);
+            // ids start at 1 so that no packed key is 0, the empty slot marker
+            id = prefixes.size();
+            prefixIds.put(prefix, id);
+        }
+        lastPrefix = prefix;
+        lastPrefixId = id;
+        return id;
+    }
+
+    private int find(long key) {
+        int mask = table.length - 1;
+        for (int i = mix(key) & mask; table[i] != 0; i = (i + 1) & mask) {
+            if (table[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(long key) {
+        int mask = table.length - 1;
+        int i = mix(key) & mask;
+        while (table[i] != 0) {
+            if (table[i] == key) {
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        table[i] = key;
+        if (++size > table.length * LOAD_FACTOR) {
+            rehash();
+        }
+    }
+
+    private void rehash() {
+        long[] old = table;
+        table = new long[old.length << 1];
+        int mask = table.length - 1;
+        for (long key : old) {
+            if (key != 0) {
+                int i = mix(key) & mask;
+                while (table[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = key;
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,210 @@
+package io.jenkins.plugins.worktile.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Which jobs are reported without a notifier or step. Each line of a rule list is a glob on the full name of the
+ * job, {@code folder:} followed by a glob on the full name of an enclosing folder, {@code name:} followed by a
+ * glob on the job name, or {@code label:} followed by a label the run was built on. In globs {@code *} and
+ * {@code ?} stay within a path segment and {@code **} spans segments. A job is reported when it matches an
+ * include, or there are none, and matches no exclude. When either list is invalid no job is reported.
+ */
+public final class AutoReportRules {
+    private static AutoReportRules last = new AutoReportRules(null, null);
+
+    private final String includeSource;
+    private final String excludeSource;
+    private final List<Rule> includes;
+    private final List<Rule> excludes;
+    private final boolean valid;
+
+    private AutoReportRules(String includeSource, String excludeSource) {
+        this.includeSource = includeSource;
+        this.excludeSource = excludeSource;
+        // an empty include list means every job, a typo must not widen reporting to the whole controller
+        this.valid = validate(includeSource) == null && validate(excludeSource) == null;
+        this.includes = parse(includeSource);
+        this.excludes = parse(excludeSource);
+    }
+
+    /**
+     * Returns the rules of the given lists, reusing the last ones parsed when the lists did not change.
+     */
+    public static synchronized AutoReportRules of(String includes, String excludes) {
+        if (!Objects.equals(last.includeSource, includes) || !Objects.equals(last.excludeSource, excludes)) {
+            last = new AutoReportRules(includes, excludes);
+        }
+        return last;
+    }
+
+    /**
+     * @param folders the full names of the folders enclosing the job, nearest first
+     * @param labels  the labels the run was built on, only asked for when a label rule is reached
+     */
+    public boolean matches(String fullName, List<String> folders, Supplier<Collection<String>> labels) {
+        if (!valid) {
+            return false;
+        }
+        Subject subject = new Subject(fullName, folders, labels);
+        return (includes.isEmpty() || anyMatches(includes, subject)) && !anyMatches(excludes, subject);
+    }
+
+    /**
+     * Whether matching a job may need the labels of its run.
+     */
+    public boolean hasLabelRules() {
+        for (Rule rule : includes) {
+            if (rule.kind == Kind.LABEL) {
+                return true;
+            }
+        }
+        for (Rule rule : excludes) {
+            if (rule.kind == Kind.LABEL) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns why {@code source} is not a valid rule list, or null when it is.
+     */
+    public static String validate(String source) {
+        if (source == null) {
+            return null;
+        }
+        for (String line : source.split("\\r?\\n")) {
+            String rule = line.trim();
+            if (rule.isEmpty()) {
+                continue;
+            }
+            int colon = rule.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String kind = rule.substring(0, colon);
+            if (!Kind.isKnown(kind)) {
+                return "Unknown rule kind '" + kind + "', use folder:, name: or label:";
+            }
+            if (rule.substring(colon + 1).trim().isEmpty()) {
+                return "The rule '" + rule + "' has nothing to match";
+            }
+        }
+        return null;
+    }
+
+    private static boolean anyMatches(List<Rule> rules, Subject subject) {
+        for (Rule rule : rules) {
+            if (rule.matches(subject)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Rule> parse(String source) {
+        if (source == null || validate(source) != null) {
+            return Collections.emptyList();
+        }
+        List<Rule> rules = new ArrayList<>();
+        for (String line : source.split("\\r?\\n")) {
+            String rule = line.trim();
+            if (rule.isEmpty()) {
+                continue;
+            }
+            int colon = rule.indexOf(':');
+            if (colon < 0) {
+                rules.add(new Rule(Kind.JOB, rule));
+            } else {
+                rules.add(new Rule(Kind.valueOf(rule.substring(0, colon).toUpperCase()),
+                        rule.substring(colon + 1).trim()));
+            }
+        }
+        return rules;
+    }
+
+    static Pattern glob(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*' && i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                regex.append(".*");
+                i++;
+            } else if (c == '*') {
+                regex.append("[^/]*");
+            } else if (c == '?') {
+                regex.append("[^/]");
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private enum Kind {
+        JOB, FOLDER, NAME, LABEL;
+
+        static boolean isKnown(String kind) {
+            return kind.equalsIgnoreCase("folder") || kind.equalsIgnoreCase("name")
+                    || kind.equalsIgnoreCase("label");
+        }
+    }
+
+    private static final class Rule {
+        private final Kind kind;
+        private final String value;
+        private final Pattern pattern;
+
+        Rule(Kind kind, String value) {
+            this.kind = kind;
+            this.value = value;
+            this.pattern = kind == Kind.LABEL ? null : glob(value);
+        }
+
+        boolean matches(Subject subject) {
+            switch (kind) {
+                case FOLDER:
+                    for (String folder : subject.folders) {
+                        if (pattern.matcher(folder).matches()) {
+                            return true;
+                        }
+                    }
+                    return false;
+                case NAME:
+                    return pattern.matcher(subject.name).matches();
+                case LABEL:
+                    return subject.labels().contains(value);
+                default:
+                    return pattern.matcher(subject.fullName).matches();
+            }
+        }
+    }
+
+    private static final class Subject {
+        private final String fullName;
+        private final String name;
+        private final List<String> folders;
+        private final Supplier<Collection<String>> labelSupplier;
+        private Collection<String> labels;
+
+        Subject(String fullName, List<String> folders, Supplier<Collection<String>> labelSupplier) {
+            this.fullName = fullName;
+            this.name = fullName.substring(fullName.lastIndexOf('/') + 1);
+            this.folders = folders;
+            this.labelSupplier = labelSupplier;
+        }
+
+        Collection<String> labels() {
+            if (labels == null) {
+                labels = labelSupplier.get();
+            }
+            return labels;
+        }
+    }
+}
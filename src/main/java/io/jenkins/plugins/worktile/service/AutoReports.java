@@ -0,0 +1,142 @@
+package io.jenkins.plugins.worktile.service;
+
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import io.jenkins.plugins.worktile.WTHelper;
+import io.jenkins.plugins.worktile.WTLogger;
+import io.jenkins.plugins.worktile.model.WTBuildEntity;
+import jenkins.util.Timer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Build records of runs reported without a notifier or step. Completed runs wait in one queue that is drained in
+ * batches on the report threads: a batch authorizes once, resolves and sends its records in parallel, and the next
+ * batch starts when it is done. Runs arriving while the queue is full are dropped and counted. The queue holds the
+ * ids of the runs, each is loaded again when its batch is sent.
+ */
+public final class AutoReports {
+    private static final Logger logger = Logger.getLogger(AutoReports.class.getName());
+
+    public static final int DEFAULT_BATCH_SIZE = 20;
+
+    static final int MAX_QUEUED = 10000;
+
+    static final int BATCH_DELAY_SECONDS = 5;
+
+    private static final Deque<Queued> queue = new ArrayDeque<>();
+
+    private static final AtomicLong dropped = new AtomicLong();
+
+    private static boolean draining;
+
+    private AutoReports() {
+    }
+
+    /**
+     * Queues the build record of a completed run, returning false when the queue is full.
+     */
+    public static boolean offer(Run<?, ?> run, int batchSize) {
+        return offer(run, batchSize, null);
+    }
+
+    /**
+     * Queues the build record of a completed run that is only sent when it passes {@code filter}, tested on the
+     * report threads.
+     */
+    public static boolean offer(Run<?, ?> run, int batchSize, Predicate<Run<?, ?>> filter) {
+        synchronized (queue) {
+            if (queue.size() >= MAX_QUEUED) {
+                long count = dropped.incrementAndGet();
+                logger.log(Level.WARNING, "automatic report queue is full, dropped {0} ({1} so far)",
+                        new Object[] { run.getExternalizableId(), count });
+                return false;
+            }
+            queue.add(new Queued(run.getExternalizableId(), filter));
+            if (draining) {
+                return true;
+            }
+            draining = true;
+        }
+        // give the runs completing together a moment to join the first batch
+        Timer.get().schedule(() -> drain(batchSize), BATCH_DELAY_SECONDS, TimeUnit.SECONDS);
+        return true;
+    }
+
+    public static long getDropped() {
+        return dropped.get();
+    }
+
+    private static void drain(int batchSize) {
+        List<Queued> batch = new ArrayList<>();
+        synchronized (queue) {
+            while (batch.size() < Math.max(1, batchSize) && !queue.isEmpty()) {
+                batch.add(queue.poll());
+            }
+            if (batch.isEmpty()) {
+                draining = false;
+                return;
+            }
+        }
+        send(batch).whenComplete((ignored, error) -> drain(batchSize));
+    }
+
+    private static CompletableFuture<Void> send(List<Queued> batch) {
+        WTRestService service = new WTRestService();
+        CompletableFuture<WTRestApiService> authorized = ReportExecutor.supply(service::authorize);
+        AtomicInteger sent = new AtomicInteger();
+        List<CompletableFuture<?>> records = new ArrayList<>();
+        for (Queued queued : batch) {
+            records.add(authorized.thenCompose(api -> ReportExecutor.supply(() -> resolve(queued))
+                    .thenCompose(entity -> entity == null ? CompletableFuture.completedFuture(false)
+                            : service.createBuildAsync(api, entity))).handle((delivered, error) -> {
+                                if (error != null) {
+                                    logger.log(Level.FINE, "unable to report " + queued.id, error);
+                                } else if (delivered) {
+                                    sent.incrementAndGet();
+                                }
+                                return null;
+                            }));
+        }
+        return CompletableFuture.allOf(records.toArray(new CompletableFuture<?>[0])).whenComplete((ignored,
+                error) -> logger.log(Level.FINE, "reported {0} of {1} runs automatically",
+                        new Object[] { sent.get(), batch.size() }));
+    }
+
+    /**
+     * Returns the record of the queued run, or null when the run was deleted or is filtered out.
+     */
+    private static WTBuildEntity resolve(Queued queued) throws InterruptedException {
+        try (ACLContext ignored = ACL.as(ACL.SYSTEM)) {
+            Run<?, ?> run = Run.fromExternalizableId(queued.id);
+            if (run == null || (queued.filter != null && !queued.filter.test(run))) {
+                return null;
+            }
+            // the workspace may be gone or reused, the work items come from the changes recorded in the run
+            return WTBuildEntity.from(run, WTHelper.safeEnvVars(run), null, new WTLogger(TaskListener.NULL), null,
+                    null, null, null, null);
+        }
+    }
+
+    private static final class Queued {
+        private final String id;
+        private final Predicate<Run<?, ?>> filter;
+
+        Queued(String id, Predicate<Run<?, ?>> filter) {
+            this.id = id;
+            this.filter = filter;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package io.jenkins.plugins.worktile.service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs deliveries one at a time per key on the report threads, deliveries of different keys in parallel. Queued
+ * deliveries of a key run in order, and {@link #submitLatest} drops a delivery older than one the key already
+ * delivered, so the deploy records of a job's environment reach PingCode in run order even when the builds
+ * publish concurrently. A delivery lasts until the future of its task completes; no report thread is held while it
+ * waits.
+ */
+public final class OrderedDeliveries {
+    private static final AtomicLong sequence = new AtomicLong();
+
+    static final int MAX_LATEST = 1024;
+
+    private static final Map<String, Lane> lanes = new HashMap<>();
+
+    private static final Map<String, Long> latest = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > MAX_LATEST;
+        }
+    };
+
+    private OrderedDeliveries() {
+    }
+
+    /**
+     * Queues {@code task} behind the deliveries of {@code key} that come before {@code order}. Cancelling the
+     * returned future drops the task when it is queued and interrupts it when it is running.
+     */
+    public static <T> CompletableFuture<T> submit(String key, long order, Callable<T> task) {
+        return submitAsync(key, order, () -> CompletableFuture.completedFuture(task.call()));
+    }
+
+    /**
+     * Like {@link #submit}, for a task that returns at once with a future; the next delivery of {@code key} starts
+     * when that future completes. Cancelling the returned future also cancels the task's future.
+     */
+    public static <T> CompletableFuture<T> submitAsync(String key, long order, Callable<CompletableFuture<T>> task) {
+        Entry<T> entry = new Entry<>(order, sequence.incrementAndGet(), task);
+        Lane lane;
+        boolean idle;
+        synchronized (lanes) {
+            lane = lanes.computeIfAbsent(key == null ? "" : key, Lane::new);
+            lane.queue.add(entry);
+            idle = !lane.running;
+            lane.running = true;
+        }
+        entry.result.whenComplete((value, error) -> {
+            if (error instanceof CancellationException) {
+                entry.interrupt();
+            }
+        });
+        if (idle) {
+            next(lane);
+        }
+        return entry.result;
+    }
+
+    /**
+     * Like {@link #submitAsync}, for deliveries where only the newest order counts: once a delivery of {@code key}
+     * succeeded, an older one is not run and its future completes with {@code superseded}. A failed delivery does
+     * not hold older ones back.
+     */
+    public static <T> CompletableFuture<T> submitLatest(String key, long order, T superseded,
+            Callable<CompletableFuture<T>> task) {
+        return submitAsync(key, order, () -> {
+            synchronized (lanes) {
+                Long delivered = latest.get(key);
+                if (delivered != null && delivered > order) {
+                    return CompletableFuture.completedFuture(superseded);
+                }
+            }
+            CompletableFuture<T> sending = task.call();
+            CompletableFuture<T> recorded = sending.thenApply(value -> {
+                synchronized (lanes) {
+                    latest.merge(key, order, Math::max);
+                }
+                return value;
+            });
+            recorded.whenComplete((value, error) -> {
+                if (error instanceof CancellationException) {
+                    sending.cancel(true);
+                }
+            });
+            return recorded;
+        });
+    }
+
+    private static void next(Lane lane) {
+        Entry<?> entry;
+        synchronized (lanes) {
+            entry = lane.queue.poll();
+            if (entry == null) {
+                lane.running = false;
+                lanes.remove(lane.key);
+                return;
+            }
+        }
+        ReportExecutor.get().execute(() -> entry.run().whenComplete((value, error) -> next(lane)));
+    }
+
+    private static final class Lane {
+        private final String key;
+        private final PriorityQueue<Entry<?>> queue = new PriorityQueue<>(
+                Comparator.<Entry<?>>comparingLong(entry -> entry.order).thenComparingLong(entry -> entry.sequence));
+        private boolean running;
+
+        Lane(String key) {
+            this.key = key;
+        }
+    }
+
+    private static final class Entry<T> {
+        private final long order;
+        private final long sequence;
+        private final Callable<CompletableFuture<T>> task;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private Thread runner;
+
+        Entry(long order, long sequence, Callable<CompletableFuture<T>> task) {
+            this.order = order;
+            this.sequence = sequence;
+            this.task = task;
+        }
+
+        /**
+         * Starts the task and returns its result, which completes when the task's future does.
+         */
+        CompletableFuture<T> run() {
+            if (result.isDone()) {
+                return result;
+            }
+            synchronized (this) {
+                runner = Thread.currentThread();
+            }
+            CompletableFuture<T> started;
+            try {
+                started = task.call();
+            } catch (Throwable e) {
+                started = new CompletableFuture<>();
+                started.completeExceptionally(e);
+            } finally {
+                synchronized (this) {
+                    runner = null;
+                }
+                // an interrupt meant for this task must not reach the next one
+                Thread.interrupted();
+            }
+            CompletableFuture<T> running = started;
+            result.whenComplete((value, error) -> {
+                if (error instanceof CancellationException) {
+                    running.cancel(true);
+                }
+            });
+            running.whenComplete((value, error) -> {
+                if (error == null) {
+                    result.complete(value);
+                } else {
+                    result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error);
+                }
+            });
+            return result;
+        }
+
+        synchronized void interrupt() {
+            if (runner != null) {
+                runner.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package io.jenkins.plugins.worktile.service;
+
+import io.jenkins.plugins.worktile.WTGlobalConfiguration;
+import jenkins.model.Jenkins;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records on their way to PingCode. At most {@link #MAX_IN_FLIGHT} are sent at a time; the others wait in one lane
+ * per {@link Priority} and a lane is only served when the lanes above it are empty. Within a lane the top-level
+ * folders share the sends by weight (start-time fair queuing), so one folder with a backlog does not hold back
+ * the others. Past the queue limit a record of a lower lane is dropped to make room, and a record with no lower
+ * lane to take room from is dropped itself, except for deploy records. Every drop is counted by lane.
+ */
+public final class OutboundQueue {
+    private static final Logger logger = Logger.getLogger(OutboundQueue.class.getName());
+
+    public static final int MAX_IN_FLIGHT = ReportExecutor.THREADS;
+
+    public static final int DEFAULT_LIMIT = 500;
+
+    private static final OutboundQueue shared = new OutboundQueue(MAX_IN_FLIGHT);
+
+    private final int permits;
+    private final Map<Priority, Lane> lanes = new EnumMap<>(Priority.class);
+    private final Map<Priority, AtomicLong> dropped = new EnumMap<>(Priority.class);
+    private final ThreadLocal<Boolean> dispatching = ThreadLocal.withInitial(() -> false);
+    private int inFlight;
+    private int queued;
+
+    OutboundQueue(int permits) {
+        this.permits = permits;
+        for (Priority priority : Priority.values()) {
+            lanes.put(priority, new Lane());
+            dropped.put(priority, new AtomicLong());
+        }
+    }
+
+    /**
+     * Queues a record of the job {@code jobFullName}. {@code send} is called when its turn comes; cancelling the
+     * returned future drops the record when it is queued and cancels the send when it is running.
+     */
+    public static <T> CompletableFuture<T> submit(Priority priority, String jobFullName,
+            Supplier<CompletableFuture<T>> send) {
+        String folder = folderOf(jobFullName);
+        int limit = DEFAULT_LIMIT;
+        double weight = 1;
+        if (Jenkins.getInstanceOrNull() != null) {
+            WTGlobalConfiguration config = WTGlobalConfiguration.get();
+            limit = config.getOutboundQueueLimit();
+            weight = weights(config.getOutboundFolderWeights()).getOrDefault(folder, 1.0);
+        }
+        return shared.submit(priority, folder, weight, limit, send);
+    }
+
+    public static long getDropped(Priority priority) {
+        return shared.countDropped(priority);
+    }
+
+    static String folderOf(String jobFullName) {
+        if (jobFullName == null) {
+            return "";
+        }
+        int slash = jobFullName.indexOf('/');
+        return slash < 0 ? "" : jobFullName.substring(0, slash);
+    }
+
+    /**
+     * Parses {@code folder=weight} lines; lines that are not valid are ignored.
+     */
+    public static Map<String, Double> weights(String source) {
+        Map<String, Double> weights = new HashMap<>();
+        if (source == null) {
+            return weights;
+        }
+        for (String line : source.split("\\r?\\n")) {
+            int equals = line.lastIndexOf('=');
+            if (equals < 0) {
+                continue;
+            }
+            try {
+                double weight = Double.parseDouble(line.substring(equals + 1).trim());
+                if (weight > 0) {
+                    weights.put(line.substring(0, equals).trim(), weight);
+                }
+            } catch (NumberFormatException e) {
+                // ignored, the form reports it
+            }
+        }
+        return weights;
+    }
+
+    <T> CompletableFuture<T> submit(Priority priority, String folder, double weight, int limit,
+            Supplier<CompletableFuture<T>> send) {
+        Entry<T> entry = new Entry<>(priority, send);
+        Entry<?> evicted = null;
+        synchronized (this) {
+            if (queued >= limit) {
+                evicted = evictBelow(priority);
+                if (evicted == null && priority != Priority.DEPLOY) {
+                    evicted = entry;
+                }
+            }
+            if (evicted != entry) {
+                lanes.get(priority).add(folder, weight, entry);
+                queued++;
+            }
+        }
+        if (evicted != null) {
+            reject(evicted);
+        }
+        dispatch();
+        return entry.result;
+    }
+
+    /**
+     * Removes the newest record of the lowest lane below {@code priority}, taken from its folder with the most
+     * records waiting.
+     */
+    private Entry<?> evictBelow(Priority priority) {
+        Priority[] priorities = Priority.values();
+        for (int i = priorities.length - 1; i > priority.ordinal(); i--) {
+            Entry<?> entry = lanes.get(priorities[i]).evict();
+            if (entry != null) {
+                queued--;
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private void reject(Entry<?> entry) {
+        long count = dropped.get(entry.priority).incrementAndGet();
+        logger.log(Level.WARNING, "outbound queue is full, dropped a {0} record ({1} dropped so far)",
+                new Object[] { entry.priority.getDisplayName(), count });
+        entry.result.completeExceptionally(new RejectedExecutionException("The PingCode outbound queue is full, the "
+                + entry.priority.getDisplayName() + " record was dropped (" + count + " dropped so far)"));
+    }
+
+    private void dispatch() {
+        // a send that completes at once dispatches again from inside this loop, which picks up the freed slot
+        if (dispatching.get()) {
+            return;
+        }
+        dispatching.set(true);
+        try {
+            while (true) {
+                Entry<?> entry;
+                synchronized (this) {
+                    if (inFlight >= permits) {
+                        return;
+                    }
+                    entry = poll();
+                    if (entry == null) {
+                        return;
+                    }
+                    if (entry.result.isDone()) {
+                        continue;
+                    }
+                    inFlight++;
+                }
+                run(entry);
+            }
+        } finally {
+            dispatching.set(false);
+        }
+    }
+
+    private Entry<?> poll() {
+        for (Priority priority : Priority.values()) {
+            Entry<?> entry = lanes.get(priority).poll();
+            if (entry != null) {
+                queued--;
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private <T> void run(Entry<T> entry) {
+        CompletableFuture<T> sent;
+        try {
+            sent = entry.send.get();
+        } catch (RuntimeException e) {
+            sent = new CompletableFuture<>();
+            sent.completeExceptionally(e);
+        }
+        CompletableFuture<T> sending = sent;
+        entry.result.whenComplete((value, error) -> {
+            if (error instanceof CancellationException) {
+                sending.cancel(true);
+            }
+        });
+        sending.whenComplete((value, error) -> {
+            synchronized (this) {
+                inFlight--;
+            }
+            if (error == null) {
+                entry.result.complete(value);
+            } else {
+                entry.result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            }
+            dispatch();
+        });
+    }
+
+    long countDropped(Priority priority) {
+        return dropped.get(priority).get();
+    }
+
+    public enum Priority {
+        DEPLOY("deploy"), FAILED_BUILD("failed build"), BUILD("build"), PROGRESS("progress");
+
+        private final String displayName;
+
+        Priority(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private static final class Entry<T> {
+        private final Priority priority;
+        private final Supplier<CompletableFuture<T>> send;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private double start;
+        private double finish;
+
+        Entry(Priority priority, Supplier<CompletableFuture<T>> send) {
+            this.priority = priority;
+            this.send = send;
+        }
+    }
+
+    private static final class Flow {
+        private final String folder;
+        private final Deque<Entry<?>> entries = new ArrayDeque<>();
+        private double lastFinish;
+
+        Flow(String folder) {
+            this.folder = folder;
+        }
+    }
+
+    /**
+     * Start-time fair queuing: a record starts when the lane's virtual time or its folder's previous record
+     * finishes, whichever is later, and takes {@code 1 / weight} of virtual time. The record with the earliest
+     * finish goes first.
+     */
+    private static final class Lane {
+        private final Map<String, Flow> flows = new HashMap<>();
+        private final PriorityQueue<Flow> active = new PriorityQueue<>(
+                Comparator.comparingDouble(flow -> flow.entries.peekFirst().finish));
+        private double virtualTime;
+
+        void add(String folder, double weight, Entry<?> entry) {
+            Flow flow = flows.computeIfAbsent(folder, Flow::new);
+            entry.start = Math.max(virtualTime, flow.lastFinish);
+            entry.finish = entry.start + 1 / weight;
+            flow.lastFinish = entry.finish;
+            flow.entries.addLast(entry);
+            if (flow.entries.size() == 1) {
+                active.add(flow);
+            }
+        }
+
+        Entry<?> poll() {
+            Flow flow = active.poll();
+            if (flow == null) {
+                return null;
+            }
+            Entry<?> entry = flow.entries.pollFirst();
+            virtualTime = entry.start;
+            if (flow.entries.isEmpty()) {
+                flows.remove(flow.folder);
+            } else {
+                active.add(flow);
+            }
+            return entry;
+        }
+
+        Entry<?> evict() {
+            Flow largest = null;
+            for (Flow flow : flows.values()) {
+                if (largest == null || flow.entries.size() > largest.entries.size()) {
+                    largest = flow;
+                }
+            }
+            if (largest == null) {
+                return null;
+            }
+            if (largest.entries.size() == 1) {
+                active.remove(largest);
+                flows.remove(largest.folder);
+            }
+            Entry<?> entry = largest.entries.pollLast();
+            if (!largest.entries.isEmpty()) {
+                // the folder is not charged for a record it did not get to send
+                largest.lastFinish = largest.entries.peekLast().finish;
+            }
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package io.jenkins.plugins.worktile.service;
+
+import hudson.model.Result;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.worktile.WTHelper;
+import io.jenkins.plugins.worktile.WTLogger;
+import io.jenkins.plugins.worktile.model.WTBuildEntity;
+import io.jenkins.plugins.worktile.resolver.WorkItemResolver;
+import jenkins.util.Timer;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-progress records of running pipelines. The updates of a run that arrive within one window are merged and
+ * only the latest state is sent when the window closes. The final record of a streamed run is sent behind its
+ * progress, and later updates of the run are dropped.
+ */
+public final class ProgressUpdates {
+    private static final Logger logger = Logger.getLogger(ProgressUpdates.class.getName());
+
+    static final int MAX_FINISHED = 1024;
+
+    private static final Map<String, Pending> pending = new HashMap<>();
+
+    private static final Set<String> streamed = recent();
+
+    private static final Set<String> finished = recent();
+
+    private ProgressUpdates() {
+    }
+
+    public static void offer(WorkflowRun run, String overview, int windowSeconds) {
+        String id = run.getExternalizableId();
+        if (merge(id, run, overview)) {
+            Timer.get().schedule(() -> flush(id), windowSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Sends the final record of a run through {@code send}, behind the progress already being sent for the run so
+     * an in-progress state never lands after it. Later updates of the run are dropped.
+     */
+    public static <T> CompletableFuture<T> finish(String id, Supplier<CompletableFuture<T>> send) {
+        boolean wasStreamed;
+        synchronized (pending) {
+            wasStreamed = id != null && streamed.contains(id);
+        }
+        finish(id);
+        return wasStreamed ? OrderedDeliveries.submitAsync(key(id), System.nanoTime(), send::get) : send.get();
+    }
+
+    /**
+     * Sends a final record from the result of a streamed run that no notifier, step or automatic report has
+     * finished, so the run does not stay in progress.
+     */
+    public static void complete(WorkflowRun run) {
+        String id = run.getExternalizableId();
+        synchronized (pending) {
+            if (!streamed.contains(id) || finished.contains(id)) {
+                return;
+            }
+        }
+        Result result = run.getResult();
+        String status = result == null || result.isBetterOrEqualTo(Result.SUCCESS)
+                ? WTBuildEntity.Status.Success.getValue() : WTBuildEntity.Status.Failure.getValue();
+        ReportExecutor.supply(() -> WTBuildEntity.progress(run, status,
+                "Finished: " + (result == null ? Result.SUCCESS : result), workItemsOf(run))).thenCompose(entity -> {
+                    WTRestService service = new WTRestService();
+                    return service.createBuildAsync(service.authorize(), entity);
+                }).whenComplete((delivered, error) -> {
+                    if (error != null) {
+                        logger.log(Level.FINE, "unable to send the final record of " + id, error);
+                    }
+                });
+    }
+
+    /**
+     * Drops the pending update of a run whose final record is being sent.
+     */
+    public static void finish(String id) {
+        if (id == null) {
+            return;
+        }
+        synchronized (pending) {
+            pending.remove(id);
+            finished.add(id);
+        }
+    }
+
+    /**
+     * Merges the update into the open window of the run and returns true when it opens a new window.
+     */
+    static boolean merge(String id, WorkflowRun run, String overview) {
+        synchronized (pending) {
+            if (finished.contains(id)) {
+                return false;
+            }
+            Pending update = pending.get(id);
+            if (update != null) {
+                update.overview = overview;
+                update.merged++;
+                return false;
+            }
+            pending.put(id, new Pending(run, overview));
+            streamed.add(id);
+            return true;
+        }
+    }
+
+    /**
+     * Closes the window of the run and returns its latest update, or null when the final record came first.
+     */
+    static Pending take(String id) {
+        synchronized (pending) {
+            return pending.remove(id);
+        }
+    }
+
+    private static void flush(String id) {
+        Pending update = take(id);
+        if (update == null) {
+            return;
+        }
+        // sent one at a time per run, so an older state never overtakes a newer one; no report thread waits for
+        // the send, the outbound queue may hold progress back behind every other record
+        OrderedDeliveries.submitAsync(key(id), System.nanoTime(), () -> {
+            synchronized (pending) {
+                if (finished.contains(id)) {
+                    return CompletableFuture.completedFuture(null);
+                }
+            }
+            WTBuildEntity entity = WTBuildEntity.progress(update.run, WTBuildEntity.Status.InProgress.getValue(),
+                    update.overview, workItemsOf(update.run));
+            WTRestApiService api = new WTRestService().authorize();
+            // the first records to go when the outbound queue is full
+            return OutboundQueue.submit(OutboundQueue.Priority.PROGRESS, update.run.getParent().getFullName(),
+                    () -> api.createBuildAsync(entity));
+        }).whenComplete((response, error) -> {
+            if (error != null) {
+                logger.log(Level.FINE, "unable to send the progress of " + id, error);
+            } else if (update.merged > 0) {
+                logger.log(Level.FINER, "sent the progress of {0}, {1} updates merged",
+                        new Object[] { id, update.merged });
+            }
+        });
+    }
+
+    static String key(String id) {
+        return "progress:" + id;
+    }
+
+    private static String[] workItemsOf(WorkflowRun run) throws InterruptedException {
+        // read afresh, a checkout may have come since the last report of the run
+        WorkItemResolver resolver = new WorkItemResolver(run, WTHelper.currentEnvVars(run), null,
+                new WTLogger(TaskListener.NULL), false);
+        return resolver.resolve().toArray();
+    }
+
+    private static Set<String> recent() {
+        return Collections.newSetFromMap(new LinkedHashMap<String, Boolean>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > MAX_FINISHED;
+            }
+        });
+    }
+
+    static final class Pending {
+        private final WorkflowRun run;
+        private volatile String overview;
+        private volatile int merged;
+
+        Pending(WorkflowRun run, String overview) {
+            this.run = run;
+            this.overview = overview;
+        }
+
+        String getOverview() {
+            return overview;
+        }
+
+        int getMerged() {
+            return merged;
+        }
+    }
+}
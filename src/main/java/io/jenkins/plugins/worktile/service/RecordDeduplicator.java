@@ -0,0 +1,123 @@
+package io.jenkins.plugins.worktile.service;
+
+import io.jenkins.plugins.worktile.WTGlobalConfiguration;
+import io.jenkins.plugins.worktile.model.WTBuildEntity;
+import io.jenkins.plugins.worktile.model.WTDeployEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drops a record whose content was already sent within the window, such as the same build reported by both a
+ * WT and a PC notifier or a deploy replayed right after the first one. The content hash leaves out the times, so
+ * two reports of the same run or release match even though they were built a few seconds apart.
+ */
+public final class RecordDeduplicator {
+    static final int MAX_ENTRIES = 1 << 16;
+
+    private static final Map<String, Long> sent = new LinkedHashMap<>();
+
+    private static final AtomicLong suppressed = new AtomicLong();
+
+    private RecordDeduplicator() {
+    }
+
+    public static String hash(WTBuildEntity entity) {
+        return hash("build", entity.name, entity.identifier, entity.status, entity.resultOverview, entity.resultUrl,
+                entity.jobUrl, items(entity.workItemIdentifiers));
+    }
+
+    public static String hash(WTDeployEntity entity) {
+        // the name tells environments apart when the lookup of their id failed
+        return hash("deploy", entity.releaseName, entity.envId, entity.environmentName, entity.status,
+                entity.releaseUrl, items(entity.workItemIdentifiers));
+    }
+
+    /**
+     * Returns true when the record may be sent, false when an identical one was sent within the window. A claimed
+     * record whose delivery fails must be {@link #release(String) released}.
+     */
+    public static boolean claim(String hash) {
+        WTGlobalConfiguration config = WTGlobalConfiguration.get();
+        if (!config.isDeduplicateRecords()) {
+            return true;
+        }
+        return claim(hash, TimeUnit.SECONDS.toMillis(config.getDedupWindowSeconds()), System.currentTimeMillis());
+    }
+
+    static boolean claim(String hash, long windowMillis, long now) {
+        synchronized (sent) {
+            for (Iterator<Long> expiries = sent.values().iterator(); expiries.hasNext(); ) {
+                long expiry = expiries.next();
+                if (expiry > now && sent.size() <= MAX_ENTRIES) {
+                    break;
+                }
+                expiries.remove();
+            }
+            Long expiry = sent.get(hash);
+            if (expiry != null && expiry > now) {
+                suppressed.incrementAndGet();
+                return false;
+            }
+            sent.put(hash, now + windowMillis);
+            return true;
+        }
+    }
+
+    public static void release(String hash) {
+        synchronized (sent) {
+            sent.remove(hash);
+        }
+    }
+
+    /**
+     * Console message for a dropped {@code record}, e.g. "build record".
+     */
+    public static String skipped(String record) {
+        return "Skip the pingcode " + record + ", an identical one was sent within the last "
+                + WTGlobalConfiguration.get().getDedupWindowSeconds() + " seconds (" + getSuppressed()
+                + " records suppressed so far).";
+    }
+
+    /**
+     * Number of records dropped since Jenkins started.
+     */
+    public static long getSuppressed() {
+        return suppressed.get();
+    }
+
+    private static String items(String[] identifiers) {
+        if (identifiers == null) {
+            return "";
+        }
+        String[] sorted = identifiers.clone();
+        Arrays.sort(sorted);
+        return String.join(",", sorted);
+    }
+
+    private static String hash(String... fields) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String field : fields) {
+                if (field != null) {
+                    digest.update(field.getBytes(StandardCharsets.UTF_8));
+                }
+                digest.update((byte) 0);
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.jenkins.plugins.worktile.service;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import jenkins.util.ClassLoaderSanityThreadFactory;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Threads shared by the reports that run asynchronously. Concurrent reports queue for these few threads instead
+ * of holding one thread each while they resolve work items and talk to PingCode.
+ */
+public final class ReportExecutor {
+    public static final int THREADS = 8;
+
+    private static final ExecutorService executor;
+
+    static {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(THREADS, THREADS, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new ClassLoaderSanityThreadFactory(
+                        new NamingThreadFactory(new DaemonThreadFactory(), "PingCode report")));
+        pool.allowCoreThreadTimeOut(true);
+        executor = pool;
+    }
+
+    private ReportExecutor() {
+    }
+
+    public static ExecutorService get() {
+        return executor;
+    }
+
+    /**
+     * Runs {@code task} on the report threads. Cancelling the returned future interrupts the task when it is
+     * running and drops it when it is still queued.
+     */
+    public static <T> CompletableFuture<T> supply(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> running = executor.submit(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                result.complete(task.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (error instanceof CancellationException) {
+                running.cancel(true);
+            }
+        });
+        return result;
+    }
+}
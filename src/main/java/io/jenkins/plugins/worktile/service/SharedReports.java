@@ -0,0 +1,127 @@
+package io.jenkins.plugins.worktile.service;
+
+import hudson.model.Run;
+import io.jenkins.plugins.worktile.WTLogger;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Work shared by the PingCode and legacy Worktile notifiers and steps of a run. The first one to ask for a key
+ * resolves or sends, the others asking for the same key on the same run reuse its outcome, so a job configured
+ * with both twins resolves and sends once. A failed outcome is forgotten and the next one to ask does the work
+ * again.
+ */
+public final class SharedReports {
+    private static final Map<Run<?, ?>, Map<List<?>, CompletableFuture<?>>> reports = new WeakHashMap<>();
+
+    private SharedReports() {
+    }
+
+    public static List<?> key(Object... parts) {
+        return Arrays.asList(parts);
+    }
+
+    /**
+     * Whether a notifier or step of the run asked for a key of {@code kind}, like {@code "build"}.
+     */
+    public static boolean has(Run<?, ?> run, String kind) {
+        synchronized (reports) {
+            Map<List<?>, CompletableFuture<?>> ofRun = reports.get(run);
+            if (ofRun != null) {
+                for (List<?> key : ofRun.keySet()) {
+                    if (!key.isEmpty() && key.get(0) instanceof String
+                            && ((String) key.get(0)).startsWith(kind + "-")) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Returns the outcome of {@code key} on the run, starting {@code work} when no one has. The caller that
+     * started the work gets its own future, so cancelling it cancels the work; the others get a copy and log
+     * {@code reuse}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CompletableFuture<T> share(Run<?, ?> run, List<?> key, WTLogger logger, String reuse,
+            Callable<CompletableFuture<T>> work) {
+        CompletableFuture<T> shared = new CompletableFuture<>();
+        CompletableFuture<T> existing;
+        synchronized (reports) {
+            Map<List<?>, CompletableFuture<?>> ofRun = reports.computeIfAbsent(run, r -> new HashMap<>());
+            existing = (CompletableFuture<T>) ofRun.get(key);
+            if (existing == null || existing.isCompletedExceptionally()) {
+                ofRun.put(key, shared);
+                existing = null;
+            }
+        }
+        if (existing != null) {
+            logger.info(reuse);
+            return existing.handle((value, error) -> {
+                if (error != null) {
+                    throw error instanceof CompletionException ? (CompletionException) error
+                            : new CompletionException(error);
+                }
+                return value;
+            });
+        }
+        CompletableFuture<T> outcome;
+        try {
+            outcome = work.call();
+        } catch (Exception e) {
+            outcome = new CompletableFuture<>();
+            outcome.completeExceptionally(e);
+        }
+        outcome.whenComplete((value, error) -> {
+            if (error == null) {
+                shared.complete(value);
+                return;
+            }
+            synchronized (reports) {
+                Map<List<?>, CompletableFuture<?>> ofRun = reports.get(run);
+                if (ofRun != null && ofRun.get(key) == shared) {
+                    ofRun.remove(key);
+                }
+            }
+            shared.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error);
+        });
+        return outcome;
+    }
+
+    /**
+     * Waits for {@code outcome} in a build thread, rethrowing the failure as it was thrown by the work.
+     */
+    public static <T> T await(CompletableFuture<T> outcome) throws IOException, InterruptedException {
+        try {
+            return outcome.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof InterruptedException) {
+                throw (InterruptedException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
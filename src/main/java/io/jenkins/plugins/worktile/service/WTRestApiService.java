@@ -9,9 +9,9 @@ import io.jenkins.plugins.worktile.client.BuildClient;
 import io.jenkins.plugins.worktile.client.DeployClient;
 import io.jenkins.plugins.worktile.client.EnvironmentClient;
 import io.jenkins.plugins.worktile.model.*;
-import okhttp3.OkHttpClient;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 public class WTRestApiService implements BuildClient, DeployClient, EnvironmentClient {
 
@@ -25,9 +25,7 @@ public class WTRestApiService implements BuildClient, DeployClient, EnvironmentC
 
   public WTRestApiService(String endpoint, String token) {
     this.baseURL = endpoint;
-    OkHttpClient.Builder builder = new OkHttpClient.Builder();
-    OkHttpClient client = builder.build();
-    this.apiConnection = new ApiConnection(token, client);
+    this.apiConnection = new ApiConnection(token);
   }
 
   @Override
@@ -36,12 +34,24 @@ public class WTRestApiService implements BuildClient, DeployClient, EnvironmentC
     return this.apiConnection.executePost(path, entity);
   }
 
+  @Override
+  public CompletableFuture<String> createBuildAsync(WTBuildEntity entity) {
+    String path = this.baseURL + "/build/builds";
+    return this.apiConnection.executePostAsync(path, entity);
+  }
+
   @Override
   public Object createDeploy(WTDeployEntity entity) throws IOException, WTRestException {
     String path = this.baseURL + "/release/deploys";
     return this.apiConnection.executePost(path, entity);
   }
 
+  @Override
+  public CompletableFuture<String> createDeployAsync(WTDeployEntity entity) {
+    String path = this.baseURL + "/release/deploys";
+    return this.apiConnection.executePostAsync(path, entity);
+  }
+
   @Override
   public WTPaginationResponse<WTEnvironmentSchema> listEnvironments()
       throws IOException, WTRestException {
@@ -4,10 +4,18 @@ import io.jenkins.plugins.worktile.MemoryTokenStore;
 import io.jenkins.plugins.worktile.WTGlobalConfiguration;
 import io.jenkins.plugins.worktile.WTHelper;
 import io.jenkins.plugins.worktile.model.*;
+import io.jenkins.plugins.worktile.resolver.DeliveredAssociations;
+import io.jenkins.plugins.worktile.resolver.ResolutionMarks;
 import io.jenkins.plugins.worktile.resolver.SecretResolver;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 public class WTRestService {
@@ -37,8 +45,32 @@ public class WTRestService {
         tokenService.getTokenFromApi();
     }
 
-    public void createBuild(WTBuildEntity entity) throws IOException, WTRestException {
-        this.getWTRestService().createBuild(entity);
+    /**
+     * Returns false when an identical record was sent within the deduplication window and this one was dropped.
+     */
+    public boolean createBuild(WTBuildEntity entity) throws IOException, WTRestException {
+        return await(createBuildAsync(this.getWTRestService(), entity));
+    }
+
+    /**
+     * Completes with false when an identical record was sent within the deduplication window and this one was
+     * dropped.
+     */
+    public CompletableFuture<Boolean> createBuildAsync(WTRestApiService api, WTBuildEntity entity) {
+        OutboundQueue.Priority priority = WTBuildEntity.Status.Failure.getValue().equals(entity.status)
+                ? OutboundQueue.Priority.FAILED_BUILD : OutboundQueue.Priority.BUILD;
+        return ProgressUpdates.finish(entity.runId, () -> delivered(RecordDeduplicator.hash(entity), priority,
+                jobOf(entity.runId), () -> api.createBuildAsync(entity), () -> {
+                    ResolutionMarks.advance(entity.marks);
+                    DeliveredAssociations.record(entity.associations);
+                }));
+    }
+
+    /**
+     * Returns a client carrying a valid token, fetching a new token when the cached one has expired.
+     */
+    public WTRestApiService authorize() {
+        return getWTRestService();
     }
 
     private WTRestApiService getWTRestService() {
@@ -56,8 +88,87 @@ public class WTRestService {
         return new WTRestApiService(baseURL, Objects.requireNonNull(token).accessToken);
     }
 
-    public void createDeploy(WTDeployEntity entity) throws IOException, WTRestException {
-        this.getWTRestService().createDeploy(entity);
+    /**
+     * Returns false when an identical record was sent within the deduplication window and this one was dropped.
+     */
+    public boolean createDeploy(WTDeployEntity entity) throws IOException, WTRestException {
+        return await(createDeployAsync(this.getWTRestService(), entity));
+    }
+
+    public CompletableFuture<Boolean> createDeployAsync(WTRestApiService api, WTDeployEntity entity) {
+        return delivered(RecordDeduplicator.hash(entity), OutboundQueue.Priority.DEPLOY, jobOf(entity.runId),
+                () -> api.createDeployAsync(entity), () -> ResolutionMarks.advance(entity.marks));
+    }
+
+    /**
+     * Sends the record unless it is a duplicate, releasing its claim when it is not delivered.
+     */
+    private static CompletableFuture<Boolean> delivered(String hash, OutboundQueue.Priority priority, String job,
+            Supplier<CompletableFuture<String>> send, Runnable bookkeeping) {
+        if (!RecordDeduplicator.claim(hash)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        CompletableFuture<Boolean> result = sent(priority, job, send, bookkeeping);
+        result.whenComplete((delivered, error) -> {
+            if (error != null) {
+                RecordDeduplicator.release(hash);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Queues the record on the {@link OutboundQueue} and runs the bookkeeping of a delivered record on the thread
+     * that completes the send, never on the report threads: those may all be waiting for deliveries. Cancelling
+     * the returned future cancels the request.
+     */
+    static CompletableFuture<Boolean> sent(OutboundQueue.Priority priority, String job,
+            Supplier<CompletableFuture<String>> send, Runnable bookkeeping) {
+        CompletableFuture<String> sent = OutboundQueue.submit(priority, job, send);
+        CompletableFuture<Boolean> result = sent.thenApply(response -> {
+            bookkeeping.run();
+            return true;
+        });
+        result.whenComplete((delivered, error) -> {
+            if (error instanceof CancellationException) {
+                sent.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * The full name of the job of a run, from its externalizable id.
+     */
+    static String jobOf(String runId) {
+        if (runId == null) {
+            return null;
+        }
+        int hash = runId.lastIndexOf('#');
+        return hash < 0 ? runId : runId.substring(0, hash);
+    }
+
+    private static boolean await(CompletableFuture<Boolean> delivery) throws IOException, WTRestException {
+        try {
+            return delivery.get();
+        } catch (InterruptedException e) {
+            delivery.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while sending the record");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof WTRestException) {
+                throw (WTRestException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
     }
 
     public WTPaginationResponse<WTEnvironmentSchema> listEnvironments() throws IOException, WTRestException {
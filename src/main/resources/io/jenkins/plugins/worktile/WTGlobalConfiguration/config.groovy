@@ -23,6 +23,83 @@ f.section(title: _('PingCode application')) {
         }""", context: app, includeUser: false, expressionAllowed: false)
     }
 
+    f.entry(title:_('Incremental work item resolution'), field:'incrementalResolution') {
+        f.checkbox()
+    }
+
+    f.entry(title:_('Previous tag is the nearest tagged ancestor'), field:'describeTagRange') {
+        f.checkbox()
+    }
+
+    f.entry(title:_('Commit walk limit'), field:'walkCommitLimit') {
+        f.number(clazz: 'positive-number', min: 1, step: 1)
+    }
+
+    f.entry(title:_('Commit walk timeout (seconds)'), field:'walkTimeLimit') {
+        f.number(clazz: 'positive-number', min: 1, step: 1)
+    }
+
+    f.entry(title:_('Commit history backend'), field:'historyBackend') {
+        f.select()
+    }
+
+    f.entry(title:_('Concurrent commit walks per agent'), field:'agentConcurrentWalks') {
+        f.number(clazz: 'positive-number', min: 1, step: 1)
+    }
+
+    f.entry(title:_('Agent JGit window cache (MB)'), field:'agentWindowCacheMb') {
+        f.number(clazz: 'number', min: 0, step: 1)
+    }
+
+    f.optionalBlock(title:_('Resolve work items from controller git mirrors'), field:'mirrorCache', inline: true) {
+        f.entry(title:_('Mirror cache disk budget (MB)'), field:'mirrorCacheBudgetMb') {
+            f.number(clazz: 'positive-number', min: 1, step: 1)
+        }
+    }
+
+    f.optionalBlock(title:_('Only send work items linked to new commits'), field:'skipDeliveredAssociations',
+            inline: true) {
+        f.entry(title:_('Send all work items every N builds'), field:'associationResendInterval') {
+            f.number(clazz: 'positive-number', min: 1, step: 1)
+        }
+    }
+
+    f.optionalBlock(title:_('Stream pipeline progress'), field:'streamProgress', inline: true) {
+        f.entry(title:_('Merge updates within (seconds)'), field:'progressWindowSeconds') {
+            f.number(clazz: 'positive-number', min: 1, step: 1)
+        }
+    }
+
+    f.optionalBlock(title:_('Drop identical records'), field:'deduplicateRecords', inline: true) {
+        f.entry(title:_('Deduplication window (seconds)'), field:'dedupWindowSeconds') {
+            f.number(clazz: 'positive-number', min: 1, step: 1)
+        }
+    }
+
+    f.optionalBlock(title:_('Report every build automatically'), field:'autoReport', inline: true) {
+        f.entry(title:_('Include jobs'), field:'autoReportIncludes') {
+            f.textarea()
+        }
+        f.entry(title:_('Exclude jobs'), field:'autoReportExcludes') {
+            f.textarea()
+        }
+        f.entry(title:_('Records per batch'), field:'autoReportBatchSize') {
+            f.number(clazz: 'positive-number', min: 1, step: 1)
+        }
+    }
+
+    f.entry(title:_('Outbound queue limit'), field:'outboundQueueLimit', description: instance.outboundDrops) {
+        f.number(clazz: 'positive-number', min: 1, step: 1)
+    }
+
+    f.entry(title:_('Folder weights'), field:'outboundFolderWeights') {
+        f.textarea()
+    }
+
+    f.entry(title:_('Console output'), field:'logLevel') {
+        f.select()
+    }
+
     f.entry(title: _('')) {
         f.validateButton(
             title: 'Test Connection',
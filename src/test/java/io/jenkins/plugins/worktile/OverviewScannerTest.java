@@ -0,0 +1,47 @@
+package io.jenkins.plugins.worktile;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class OverviewScannerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testLastMatchOfEachPattern() throws IOException {
+        File log = folder.newFile("log");
+        Files.write(log.toPath(), ("Started\r\n 10 passing (1s)\nStatements : 50%\n"
+                + " 788 passing (13s)\nArchiving artifacts\n").getBytes(StandardCharsets.UTF_8));
+
+        List<Pattern> patterns = OverviewScanner.compile("passing\n\nStatements\nNothing");
+        assertEquals(3, patterns.size());
+        String[] found = OverviewScanner.scan(log, StandardCharsets.UTF_8, patterns, 1 << 20);
+        assertArrayEquals(new String[] { " 788 passing (13s)", "Statements : 50%", null }, found);
+        assertEquals(" 788 passing (13s)\nStatements : 50%", OverviewScanner.join(found));
+
+        found = OverviewScanner.scan(log, StandardCharsets.UTF_8, OverviewScanner.compile("Started"), 1 << 20);
+        assertEquals("Started", found[0]);
+    }
+
+    @Test
+    public void testByteBudget() throws IOException {
+        File log = folder.newFile("log");
+        Files.write(log.toPath(), "Statements : 50%\nlast line\n".getBytes(StandardCharsets.UTF_8));
+
+        String[] found = OverviewScanner.scan(log, StandardCharsets.UTF_8, OverviewScanner.compile("Statements"), 12);
+        assertNull(found[0]);
+        found = OverviewScanner.scan(log, StandardCharsets.UTF_8, OverviewScanner.compile("last"), 12);
+        assertEquals("last line", found[0]);
+    }
+}
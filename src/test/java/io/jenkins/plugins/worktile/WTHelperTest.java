@@ -1,6 +1,10 @@
 package io.jenkins.plugins.worktile;
 
+import hudson.EnvVars;
 import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.plugins.git.Revision;
+import hudson.plugins.git.util.BuildData;
 import org.junit.Test;
 
 import java.io.IOException;
@@ -8,8 +12,11 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
@@ -74,4 +81,27 @@ public class WTHelperTest {
         assertEquals(sets.toArray()[0], "#FLW1-1");
         assertEquals(sets.toArray()[1], "#FLW-2");
     }
+
+    @Test
+    public void testEnvSnapshotIsTakenAgainAfterCheckout() throws Exception {
+        Run<?, ?> run = mock(Run.class);
+        when(run.getEnvironment(any(TaskListener.class))).thenReturn(new EnvVars("A", "1"), new EnvVars("A", "2"),
+                new EnvVars("A", "3"));
+        when(run.getActions(BuildData.class)).thenReturn(Collections.emptyList());
+
+        assertEquals("1", WTHelper.safeEnvVars(run).get("A"));
+        assertEquals("1", WTHelper.safeEnvVars(run).get("A"));
+
+        BuildData checkout = mock(BuildData.class);
+        Revision revision = mock(Revision.class);
+        when(revision.getSha1String()).thenReturn("0123456789abcdef0123456789abcdef01234567");
+        when(checkout.getLastBuiltRevision()).thenReturn(revision);
+        when(checkout.getRemoteUrls()).thenReturn(Collections.singleton("https://example.com/repo.git"));
+        when(run.getActions(BuildData.class)).thenReturn(Collections.singletonList(checkout));
+
+        assertEquals("2", WTHelper.safeEnvVars(run).get("A"));
+        assertEquals("2", WTHelper.safeEnvVars(run).get("A"));
+        assertEquals("3", WTHelper.safeEnvVars(run, true).get("A"));
+        verify(run, times(3)).getEnvironment(any(TaskListener.class));
+    }
 }
@@ -0,0 +1,122 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class AgentResolverServiceTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AgentResolverService service = new AgentResolverService();
+
+    @Test
+    public void testPoolsRepositoriesUntilEvicted() throws Exception {
+        File first = gitDir("first");
+        FileRepository pooled;
+        try (FileRepository repository = service.open(first)) {
+            pooled = repository;
+        }
+        try (FileRepository repository = service.open(first)) {
+            assertSame(pooled, repository);
+        }
+
+        for (int i = 0; i < AgentResolverService.POOL_SIZE; i++) {
+            service.open(gitDir("other" + i)).close();
+        }
+        try (FileRepository repository = service.open(first)) {
+            assertNotSame(pooled, repository);
+        }
+    }
+
+    @Test
+    public void testConcurrentWalksOfARangeRunOnce() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> walk("range", () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            release.await();
+            return "walked";
+        }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> walk("range", () -> {
+            runs.incrementAndGet();
+            return "walked again";
+        }));
+        // the second walk can only finish by joining the first one
+        Thread.sleep(200);
+        assertFalse(second.isDone());
+        release.countDown();
+
+        assertEquals("walked", first.get(10, TimeUnit.SECONDS));
+        assertEquals("walked", second.get(10, TimeUnit.SECONDS));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void testWalkJoiningAFailedWalkRunsItsOwn() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> failing = CompletableFuture.supplyAsync(() -> walk("range", () -> {
+            started.countDown();
+            release.await();
+            throw new IOException("aborted");
+        }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        CompletableFuture<String> own = CompletableFuture.supplyAsync(() -> walk("range", () -> "own"));
+        Thread.sleep(200);
+        release.countDown();
+
+        assertEquals("own", own.get(10, TimeUnit.SECONDS));
+        assertTrue(failing.handle((value, error) -> error != null).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testWalkPermitsAreResizedInPlace() throws Exception {
+        Semaphore permits = service.configure(settings(4));
+        permits.acquire(3);
+
+        assertSame(permits, service.configure(settings(2)));
+        assertEquals(-1, permits.availablePermits());
+        permits.release(3);
+        assertEquals(2, permits.availablePermits());
+
+        assertSame(permits, service.configure(settings(5)));
+        assertEquals(5, permits.availablePermits());
+    }
+
+    private String walk(String key, Callable<String> walk) {
+        try {
+            return service.shared(key, walk);
+        } catch (IOException | InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static HistoryBackends.Settings settings(int concurrentWalks) {
+        return new HistoryBackends.Settings(new WalkBudget(0, 0), HistoryBackend.Mode.JGIT, null, concurrentWalks,
+                0);
+    }
+
+    private File gitDir(String name) throws Exception {
+        try (Git git = Git.init().setDirectory(folder.newFolder(name)).call()) {
+            return git.getRepository().getDirectory();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class AssociationFilterTest {
+
+    @Test
+    public void testFingerprintIgnoresHashAndCase() {
+        assertEquals(AssociationFilter.fingerprint("c1", "#PLM-1"), AssociationFilter.fingerprint("c1", "plm-1"));
+        assertNotEquals(AssociationFilter.fingerprint("c1", "PLM-1"), AssociationFilter.fingerprint("c2", "PLM-1"));
+        assertNotEquals(AssociationFilter.fingerprint("c1", "PLM-1"), AssociationFilter.fingerprint("", "c1PLM-1"));
+    }
+
+    @Test
+    public void testGrowsWithoutFalseNegatives() throws IOException {
+        AssociationFilter filter = new AssociationFilter();
+        int pairs = AssociationFilter.INITIAL_CAPACITY * 10;
+        for (int i = 0; i < pairs; i++) {
+            filter.add(AssociationFilter.fingerprint("commit" + i, "#PLM-" + i));
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        filter.write(new DataOutputStream(bytes));
+        AssociationFilter reloaded = AssociationFilter.read(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        for (int i = 0; i < pairs; i++) {
+            assertTrue(reloaded.mightContain(AssociationFilter.fingerprint("commit" + i, "#PLM-" + i)));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < pairs; i++) {
+            if (reloaded.mightContain(AssociationFilter.fingerprint("other" + i, "#PLM-" + i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives + " false positives", falsePositives < pairs * 2
+                * AssociationFilter.INITIAL_FALSE_POSITIVE_RATE);
+        assertTrue(filter.count() <= pairs);
+    }
+
+    @Test(expected = IOException.class)
+    public void testCorruptFilterIsRejected() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new DataOutputStream(bytes).writeInt(0);
+        AssociationFilter.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}
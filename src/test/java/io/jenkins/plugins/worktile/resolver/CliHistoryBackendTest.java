@@ -0,0 +1,89 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class CliHistoryBackendTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSameIdentifiersAsJGitWithAMissingRangeStart() throws Exception {
+        Assume.assumeTrue("needs a git executable", hasGit());
+        File dir = folder.newFolder("repo");
+        try (Git git = Git.init().setDirectory(dir).call()) {
+            RevCommit base = commit(git, "fix: #PLM-1");
+            commit(git, "fix: #PLM-2\n\nalso #PLM-3");
+            RevCommit head = commit(git, "fix: #PLM-4");
+            File gitDir = git.getRepository().getDirectory();
+            // a mark rewritten by a force-push is not in the repository any more
+            Collection<ObjectId> since = Arrays.asList(base,
+                    ObjectId.fromString("0123456789abcdef0123456789abcdef01234567"));
+
+            CommitWalkResult cli = walk(new CliHistoryBackend(gitDir, null), gitDir, head, since);
+            CommitWalkResult jgit = walk(new JGitHistoryBackend(git.getRepository()), gitDir, head, since);
+
+            assertEquals(Arrays.asList("#PLM-4", "#PLM-2", "#PLM-3"), cli.getIdentifiers());
+            assertEquals(jgit.getIdentifiers(), cli.getIdentifiers());
+            assertEquals(jgit.getWalked(), cli.getWalked());
+        }
+    }
+
+    @Test
+    public void testBudgetTruncatesLikeJGit() throws Exception {
+        Assume.assumeTrue("needs a git executable", hasGit());
+        File dir = folder.newFolder("repo");
+        try (Git git = Git.init().setDirectory(dir).call()) {
+            RevCommit head = null;
+            for (int i = 1; i <= 4; i++) {
+                head = commit(git, "fix: #PLM-" + i);
+            }
+            File gitDir = git.getRepository().getDirectory();
+            CommitWalkResult cli = new CommitWalkResult();
+            try (CommitIndex index = CommitIndex.open(folder.newFolder("cli"), WorkItemResolver.pattern)) {
+                new CliHistoryBackend(gitDir, null).walk(index, new WalkBudget(2, 60), cli, head,
+                        Collections.emptyList(), Collections.emptySet());
+            }
+
+            assertTrue(cli.isTruncated());
+            assertEquals(Arrays.asList("#PLM-4", "#PLM-3"), cli.getIdentifiers());
+        }
+    }
+
+    private CommitWalkResult walk(HistoryBackend backend, File gitDir, ObjectId head, Collection<ObjectId> since)
+            throws IOException, InterruptedException {
+        CommitWalkResult result = new CommitWalkResult();
+        // a fresh index each, so both backends read the messages
+        try (CommitIndex index = CommitIndex.open(folder.newFolder(), WorkItemResolver.pattern)) {
+            backend.walk(index, new WalkBudget(100, 60), result, head, since, Collections.emptySet());
+        }
+        return result;
+    }
+
+    private static boolean hasGit() {
+        try {
+            return new ProcessBuilder("git", "--version").start().waitFor() == 0;
+        } catch (IOException | InterruptedException e) {
+            return false;
+        }
+    }
+
+    private static RevCommit commit(Git git, String message) throws Exception {
+        return git.commit().setMessage(message).setAllowEmpty(true).setAuthor("dev", "dev@example.com")
+                .setCommitter("dev", "dev@example.com").call();
+    }
+}
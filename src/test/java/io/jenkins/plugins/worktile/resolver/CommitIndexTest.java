@@ -0,0 +1,155 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class CommitIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ObjectId first = ObjectId.fromString("0123456789abcdef0123456789abcdef01234567");
+    private final ObjectId second = ObjectId.fromString("89abcdef0123456789abcdef0123456789abcdef");
+
+    @Test
+    public void testAppendAndReload() throws IOException {
+        File gitDir = folder.newFolder(".git");
+        try (CommitIndex index = CommitIndex.open(gitDir, WorkItemResolver.pattern)) {
+            assertEquals(Arrays.asList("#PLM-1", "#PLM-2"),
+                    index.identifiersOf(first, () -> "fix: #PLM-1 and #PLM-2"));
+            index.put(second, Collections.emptyList());
+        }
+
+        try (CommitIndex index = CommitIndex.open(gitDir, WorkItemResolver.pattern)) {
+            assertEquals(2, index.size());
+            assertEquals(Arrays.asList("#PLM-1", "#PLM-2"), index.get(first));
+            assertTrue(index.get(second).isEmpty());
+            assertEquals(Arrays.asList("#PLM-1", "#PLM-2"), index.identifiersOf(first, () -> {
+                throw new AssertionError("message should not be read for an indexed commit");
+            }));
+        }
+    }
+
+    @Test
+    public void testPatternChangeInvalidatesIndex() throws IOException {
+        File gitDir = folder.newFolder(".git");
+        try (CommitIndex index = CommitIndex.open(gitDir, WorkItemResolver.pattern)) {
+            index.identifiersOf(first, () -> "fix: #PLM-1");
+        }
+
+        try (CommitIndex index = CommitIndex.open(gitDir, Pattern.compile("[A-Z]+-[0-9]+"))) {
+            assertNull(index.get(first));
+            assertEquals(Collections.singletonList("PLM-1"), index.identifiersOf(first, () -> "fix: #PLM-1"));
+        }
+
+        try (CommitIndex index = CommitIndex.open(gitDir, Pattern.compile("[A-Z]+-[0-9]+"))) {
+            assertEquals(Collections.singletonList("PLM-1"), index.get(first));
+        }
+    }
+
+    @Test
+    public void testOversizedIndexIsRewritten() throws IOException {
+        File gitDir = folder.newFolder(".git");
+        File file = new File(gitDir, CommitIndex.FILE_NAME);
+        writeHeader(file, WorkItemResolver.pattern);
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.setLength(CommitIndex.MAX_SIZE + 1);
+        }
+
+        try (CommitIndex index = CommitIndex.open(gitDir, WorkItemResolver.pattern)) {
+            assertNull(index.get(first));
+            index.identifiersOf(first, () -> "fix: #PLM-1");
+        }
+
+        assertTrue(file.length() < 1024);
+        try (CommitIndex index = CommitIndex.open(gitDir, WorkItemResolver.pattern)) {
+            assertEquals(1, index.size());
+            assertEquals(Collections.singletonList("#PLM-1"), index.get(first));
+        }
+    }
+
+    @Test
+    public void testInvalidHeaderIsRewritten() throws IOException {
+        File gitDir = folder.newFolder(".git");
+        File file = new File(gitDir, CommitIndex.FILE_NAME);
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[100]);
+        }
+
+        try (CommitIndex index = CommitIndex.open(gitDir, WorkItemResolver.pattern)) {
+            index.identifiersOf(first, () -> "fix: #PLM-1");
+        }
+
+        try (CommitIndex index = CommitIndex.open(gitDir, WorkItemResolver.pattern)) {
+            assertEquals(1, index.size());
+            assertEquals(Collections.singletonList("#PLM-1"), index.get(first));
+        }
+    }
+
+    @Test
+    public void testKeepsRecordsOfAnIndexRewrittenSinceLoad() throws IOException {
+        File gitDir = folder.newFolder(".git");
+        File file = new File(gitDir, CommitIndex.FILE_NAME);
+        writeHeader(file, Pattern.compile("[A-Z]+-[0-9]+"));
+
+        try (CommitIndex stale = CommitIndex.open(gitDir, WorkItemResolver.pattern)) {
+            try (CommitIndex other = CommitIndex.open(gitDir, WorkItemResolver.pattern)) {
+                other.identifiersOf(first, () -> "fix: #PLM-1");
+            }
+            stale.identifiersOf(second, () -> "fix: #PLM-2");
+        }
+
+        try (CommitIndex index = CommitIndex.open(gitDir, WorkItemResolver.pattern)) {
+            assertEquals(2, index.size());
+            assertEquals(Collections.singletonList("#PLM-1"), index.get(first));
+            assertEquals(Collections.singletonList("#PLM-2"), index.get(second));
+        }
+    }
+
+    @Test
+    public void testFlushIsAFailureWhileThisProcessHoldsTheFileLock() throws IOException {
+        File gitDir = folder.newFolder(".git");
+        File file = new File(gitDir, CommitIndex.FILE_NAME);
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE); FileLock ignored = channel.lock()) {
+            CommitIndex index = CommitIndex.open(gitDir, WorkItemResolver.pattern);
+            index.identifiersOf(first, () -> "fix: #PLM-1");
+            try {
+                index.flush();
+                fail("the held lock should fail the flush");
+            } catch (IOException expected) {
+                assertEquals(1, index.size());
+            }
+            index.close();
+        }
+
+        try (CommitIndex index = CommitIndex.open(gitDir, WorkItemResolver.pattern)) {
+            assertEquals(0, index.size());
+        }
+    }
+
+    private static void writeHeader(File file, Pattern pattern) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.writeInt(CommitIndex.MAGIC);
+            out.writeInt(CommitIndex.VERSION);
+            out.writeInt(pattern.pattern().hashCode());
+        }
+    }
+}
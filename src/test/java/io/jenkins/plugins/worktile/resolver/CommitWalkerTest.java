@@ -0,0 +1,105 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CommitWalkerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testBudgetTruncatesTheWalk() throws Exception {
+        File dir = folder.newFolder("repo");
+        try (Git git = Git.init().setDirectory(dir).call()) {
+            RevCommit base = commit(git, "init");
+            RevCommit head = null;
+            for (int i = 1; i <= 5; i++) {
+                head = commit(git, "fix: #PLM-" + i);
+            }
+            CommitWalkResult result = new CommitWalkResult();
+            try (CommitIndex index = CommitIndex.open(git.getRepository().getDirectory(), WorkItemResolver.pattern)) {
+                CommitWalker.walk(git.getRepository(), index, new WalkBudget(2, 60), result, head,
+                        Collections.singletonList(base), Collections.emptySet());
+            }
+
+            assertTrue(result.isTruncated());
+            assertEquals(2, result.getWalked());
+            assertEquals(Arrays.asList("#PLM-5", "#PLM-4"), result.getIdentifiers());
+        }
+    }
+
+    @Test
+    public void testWalkWithinBudgetStopsAtTheRangeStart() throws Exception {
+        File dir = folder.newFolder("repo");
+        try (Git git = Git.init().setDirectory(dir).call()) {
+            commit(git, "fix: #PLM-1");
+            RevCommit mark = commit(git, "fix: #PLM-2");
+            RevCommit head = commit(git, "fix: #PLM-3");
+            CommitWalkResult result = new CommitWalkResult();
+            try (CommitIndex index = CommitIndex.open(git.getRepository().getDirectory(), WorkItemResolver.pattern)) {
+                CommitWalker.walk(git.getRepository(), index, new WalkBudget(10, 60), result, head,
+                        Collections.singletonList(mark), Collections.emptySet());
+            }
+
+            assertFalse(result.isTruncated());
+            assertEquals(Collections.singletonList("#PLM-3"), result.getIdentifiers());
+        }
+    }
+
+    @Test
+    public void testMergeBaseOfAPullRequest() throws Exception {
+        File dir = folder.newFolder("repo");
+        try (Git git = Git.init().setDirectory(dir).call()) {
+            RevCommit fork = commit(git, "init");
+            String target = git.getRepository().getBranch();
+            git.checkout().setCreateBranch(true).setName("feature").call();
+            RevCommit head = commit(git, "feat: #PLM-1");
+            git.checkout().setName(target).call();
+            commit(git, "fix: #PLM-2");
+
+            assertEquals(fork, CommitWalker.mergeBase(git.getRepository(), head, target));
+            // the callback falls back to the parent of the head when the target branch is unknown
+            assertNull(CommitWalker.mergeBase(git.getRepository(), head, "missing"));
+            assertNull(CommitWalker.mergeBase(git.getRepository(), head, null));
+        }
+    }
+
+    @Test
+    public void testMergeKeepsEachCommitWithItsIdentifiers() {
+        ObjectId first = ObjectId.fromString("0123456789abcdef0123456789abcdef01234567");
+        ObjectId second = ObjectId.fromString("89abcdef0123456789abcdef0123456789abcdef");
+        CommitWalkResult walked = new CommitWalkResult(true);
+        walked.add(first, Collections.emptyList());
+        walked.add(second, Arrays.asList("#PLM-1", "#PLM-2"));
+        CommitWalkResult result = new CommitWalkResult();
+        result.add(first, Collections.singletonList("#PLM-3"));
+        result.merge(walked);
+
+        List<String> pairs = new ArrayList<>();
+        for (CommitWalkResult.Found found : result.getFound()) {
+            for (String identifier : found.getIdentifiers()) {
+                pairs.add(found.getCommit() + ":" + identifier);
+            }
+        }
+        assertEquals(Arrays.asList("null:#PLM-3", second.name() + ":#PLM-1", second.name() + ":#PLM-2"), pairs);
+        assertEquals(Arrays.asList("#PLM-3", "#PLM-1", "#PLM-2"), result.getIdentifiers());
+    }
+
+    private static RevCommit commit(Git git, String message) throws Exception {
+        return git.commit().setMessage(message).setAllowEmpty(true).setAuthor("dev", "dev@example.com")
+                .setCommitter("dev", "dev@example.com").call();
+    }
+}
@@ -0,0 +1,88 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import hudson.model.Job;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DeliveredAssociationsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Job<?, ?> job;
+
+    @Before
+    public void setUp() throws IOException {
+        job = mock(Job.class);
+        File root = folder.newFolder("job");
+        when(job.getRootDir()).thenReturn(root);
+        when(job.getFullName()).thenReturn("job");
+    }
+
+    @Test
+    public void testSkipsDeliveredPairsOnly() {
+        DeliveredAssociations.Delivery first = DeliveredAssociations.select(job, 1, 20,
+                associations("PLM-1", "c1", "PLM-2", "c1"));
+        assertTrue(first.isFull());
+        assertEquals(Arrays.asList("PLM-1", "PLM-2"), first.getIdentifiers());
+        DeliveredAssociations.record(job, first);
+
+        DeliveredAssociations.Delivery second = DeliveredAssociations.select(job, 2, 20,
+                associations("PLM-1", "c1", "PLM-2", "c2", "PLM-3", "c2"));
+        assertFalse(second.isFull());
+        assertEquals(Arrays.asList("PLM-2", "PLM-3"), second.getIdentifiers());
+        assertEquals(1, second.getSkipped());
+        DeliveredAssociations.record(job, second);
+
+        DeliveredAssociations.Delivery third = DeliveredAssociations.select(job, 3, 20,
+                associations("PLM-2", "c2", "PLM-3", "c2"));
+        assertTrue(third.getIdentifiers().isEmpty());
+        assertEquals(2, third.getSkipped());
+    }
+
+    @Test
+    public void testFilterHitIsConfirmedByTheExactList() throws IOException {
+        DeliveredAssociations.record(job, DeliveredAssociations.select(job, 1, 20, associations("PLM-1", "c1")));
+        // the filter still answers yes for the pair, the exact list no longer has it
+        Files.delete(new File(job.getRootDir(), DeliveredAssociations.EXACT_FILE_NAME).toPath());
+
+        DeliveredAssociations.Delivery next = DeliveredAssociations.select(job, 2, 20, associations("PLM-1", "c1"));
+        assertFalse(next.isFull());
+        assertEquals(Collections.singletonList("PLM-1"), next.getIdentifiers());
+    }
+
+    @Test
+    public void testEverythingIsSentAgainAfterTheResendInterval() {
+        DeliveredAssociations.record(job, DeliveredAssociations.select(job, 1, 3, associations("PLM-1", "c1")));
+
+        assertTrue(DeliveredAssociations.select(job, 3, 3, associations("PLM-1", "c1")).getIdentifiers().isEmpty());
+        DeliveredAssociations.Delivery resend = DeliveredAssociations.select(job, 4, 3, associations("PLM-1", "c1"));
+        assertTrue(resend.isFull());
+        assertEquals(Collections.singletonList("PLM-1"), resend.getIdentifiers());
+    }
+
+    private static Map<String, Set<Long>> associations(String... pairs) {
+        Map<String, Set<Long>> associations = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            associations.computeIfAbsent(pairs[i], identifier -> new HashSet<>())
+                    .add(AssociationFilter.fingerprint(pairs[i + 1], pairs[i]));
+        }
+        return associations;
+    }
+}
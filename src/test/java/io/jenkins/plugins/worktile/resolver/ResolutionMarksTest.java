@@ -0,0 +1,54 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import io.jenkins.plugins.worktile.model.WTDeployEntity;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ResolutionMarksTest {
+
+    private static final String BRANCH = "branch:master";
+
+    private final String production = ResolutionMark.deployScope("production");
+    private final String staging = ResolutionMark.deployScope("staging");
+
+    @Test
+    public void testScopesAreMarkedApart() {
+        ResolutionMarks.Store store = new ResolutionMarks.Store();
+        store.advance(Collections.singletonList(new ResolutionMark("job", ResolutionMark.BUILD, BRANCH, "b2")));
+        store.advance(Collections.singletonList(new ResolutionMark("job", production, BRANCH, "b1")));
+
+        assertEquals("b2", store.lookup(Collections.singletonList(ResolutionMark.BUILD), BRANCH));
+        assertEquals("b1", store.lookup(Collections.singletonList(production), BRANCH));
+        assertNull(store.lookup(Collections.singletonList(staging), BRANCH));
+        assertNull(store.lookup(Collections.singletonList(ResolutionMark.BUILD), "branch:feature"));
+    }
+
+    @Test
+    public void testEnvironmentsShareOnlyTheSameMark() {
+        ResolutionMarks.Store store = new ResolutionMarks.Store();
+        store.advance(Arrays.asList(new ResolutionMark("job", production, BRANCH, "b1"),
+                new ResolutionMark("job", staging, BRANCH, "b1")));
+        assertEquals("b1", store.lookup(Arrays.asList(production, staging), BRANCH));
+
+        store.advance(Collections.singletonList(new ResolutionMark("job", staging, BRANCH, "b2")));
+        assertNull(store.lookup(Arrays.asList(production, staging), BRANCH));
+        assertNull(store.lookup(Arrays.asList(production, ResolutionMark.deployScope("qa")), BRANCH));
+    }
+
+    @Test
+    public void testDeployRecordCarriesTheMarksOfItsEnvironment() {
+        WTDeployEntity entity = new WTDeployEntity();
+        entity.marks = Arrays.asList(new ResolutionMark("job", production, BRANCH, "b1"),
+                new ResolutionMark("job", staging, BRANCH, "b1"));
+
+        List<ResolutionMark> marks = entity.forEnvironment("id", "staging").marks;
+        assertEquals(1, marks.size());
+        assertEquals(staging, marks.get(0).getScope());
+        assertTrue(entity.forEnvironment("id", "qa").marks.isEmpty());
+    }
+}
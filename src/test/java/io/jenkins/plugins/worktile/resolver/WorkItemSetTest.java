@@ -0,0 +1,43 @@
+package io.jenkins.plugins.worktile.resolver;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+public class WorkItemSetTest {
+
+    @Test
+    public void testPackedAndFallbackIdentifiers() {
+        WorkItemSet set = new WorkItemSet();
+        set.add("#plm-1");
+        set.add("#PLM-1");
+        set.add("PLM-0001");
+        set.add("#ci-api-4294967295");
+        set.add("#PLM-99999999999");
+        String message = "fix #Plm-2 and #PLM-2";
+        set.add(message, 4, 10);
+        set.add(message, 15, 21);
+
+        assertEquals(5, set.size());
+        assertTrue(set.contains("plm-1"));
+        assertTrue(set.contains("#PLM-0001"));
+        assertFalse(set.contains("PLM-3"));
+        assertFalse(set.contains("NEW-1"));
+        assertEquals(new HashSet<>(Arrays.asList("PLM-1", "PLM-2", "PLM-0001", "CI-API-4294967295",
+                "PLM-99999999999")), new HashSet<>(set.toList()));
+    }
+
+    @Test
+    public void testGrowth() {
+        WorkItemSet set = new WorkItemSet();
+        for (int i = 0; i < 10000; i++) {
+            set.add("#P" + (i % 7) + "-" + i);
+        }
+        assertEquals(10000, set.size());
+        assertTrue(set.contains("P3-9999"));
+        assertEquals(10000, new HashSet<>(set.toList()).size());
+    }
+}
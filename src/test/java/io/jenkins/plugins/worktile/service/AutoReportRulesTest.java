@@ -0,0 +1,65 @@
+package io.jenkins.plugins.worktile.service;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+public class AutoReportRulesTest {
+    private static final Supplier<Collection<String>> linux = () -> Collections.singletonList("linux");
+
+    private static final List<String> teamA = Arrays.asList("team-a/services", "team-a");
+
+    @Test
+    public void testEverythingWithoutRules() {
+        assertTrue(AutoReportRules.of(null, null).matches("job", Collections.emptyList(), linux));
+    }
+
+    @Test
+    public void testIncludes() {
+        AutoReportRules rules = AutoReportRules.of("folder:team-a\nname:*-release", null);
+        assertTrue(rules.matches("team-a/services/api", teamA, linux));
+        assertTrue(rules.matches("team-b/web-release", Collections.singletonList("team-b"), linux));
+        assertFalse(rules.matches("team-b/web", Collections.singletonList("team-b"), linux));
+    }
+
+    @Test
+    public void testExcludesWin() {
+        AutoReportRules rules = AutoReportRules.of("team-a/**", "label:linux");
+        assertFalse(rules.matches("team-a/services/api", teamA, linux));
+        assertTrue(rules.matches("team-a/services/api", teamA, Collections::emptyList));
+    }
+
+    @Test
+    public void testInvalidRulesMatchNothing() {
+        assertFalse(AutoReportRules.of("lable:linux", null).matches("job", Collections.emptyList(), linux));
+        assertFalse(AutoReportRules.of(null, "lable:linux").matches("job", Collections.emptyList(), linux));
+    }
+
+    @Test
+    public void testLabelRulesAreKnownUpFront() {
+        assertFalse(AutoReportRules.of("folder:team-a", "name:*-release").hasLabelRules());
+        assertTrue(AutoReportRules.of("folder:team-a", "label:windows").hasLabelRules());
+        assertTrue(AutoReportRules.of("label:linux", null).hasLabelRules());
+    }
+
+    @Test
+    public void testGlobStaysInSegment() {
+        assertTrue(AutoReportRules.glob("team-*").matcher("team-a").matches());
+        assertFalse(AutoReportRules.glob("team-*").matcher("team-a/api").matches());
+        assertTrue(AutoReportRules.glob("team-**").matcher("team-a/api").matches());
+        assertFalse(AutoReportRules.glob("a.b").matcher("axb").matches());
+    }
+
+    @Test
+    public void testValidate() {
+        assertNull(AutoReportRules.validate("folder:team-a\n\nname:api"));
+        assertNotNull(AutoReportRules.validate("branch:main"));
+        assertNotNull(AutoReportRules.validate("label: "));
+    }
+}
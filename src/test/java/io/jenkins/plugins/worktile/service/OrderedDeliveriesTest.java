@@ -0,0 +1,126 @@
+package io.jenkins.plugins.worktile.service;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class OrderedDeliveriesTest {
+    private final List<Long> delivered = Collections.synchronizedList(new ArrayList<>());
+
+    private CompletableFuture<Long> submit(String key, long order) {
+        return OrderedDeliveries.submit(key, order, () -> {
+            delivered.add(order);
+            return order;
+        });
+    }
+
+    @Test
+    public void testQueuedDeliveriesOfAKeyRunInRunOrder() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Long> running = OrderedDeliveries.submit("production", 50, () -> {
+            started.countDown();
+            release.await();
+            delivered.add(50L);
+            return 50L;
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        CompletableFuture<Long> third = submit("production", 30);
+        CompletableFuture<Long> first = submit("production", 10);
+        CompletableFuture<Long> second = submit("production", 20);
+        release.countDown();
+
+        CompletableFuture.allOf(running, first, second, third).get(10, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList(50L, 10L, 20L, 30L), delivered);
+    }
+
+    @Test
+    public void testKeysDoNotWaitForEachOther() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Long> blocked = OrderedDeliveries.submit("staging", 1, () -> {
+            release.await();
+            return 1L;
+        });
+
+        assertEquals(Long.valueOf(2), submit("qa", 2).get(10, TimeUnit.SECONDS));
+        assertFalse(blocked.isDone());
+        release.countDown();
+        assertEquals(Long.valueOf(1), blocked.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCancelledDeliveryIsDropped() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Long> running = OrderedDeliveries.submit("uat", 1, () -> {
+            release.await();
+            return 1L;
+        });
+        CompletableFuture<Long> dropped = submit("uat", 2);
+        CompletableFuture<Long> kept = submit("uat", 3);
+        dropped.cancel(true);
+        release.countDown();
+
+        assertEquals(Long.valueOf(3), kept.get(10, TimeUnit.SECONDS));
+        assertEquals(Long.valueOf(1), running.get(10, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList(3L), delivered);
+    }
+
+    @Test
+    public void testAsyncDeliveryHoldsItsKeyUntilItCompletes() throws Exception {
+        CompletableFuture<Long> sending = new CompletableFuture<>();
+        CompletableFuture<Long> first = OrderedDeliveries.submitAsync("sit", 1, () -> {
+            delivered.add(1L);
+            return sending;
+        });
+        CompletableFuture<Long> second = submit("sit", 2);
+
+        assertEquals(Long.valueOf(3), submit("other", 3).get(10, TimeUnit.SECONDS));
+        assertFalse(second.isDone());
+        sending.complete(1L);
+
+        assertEquals(Long.valueOf(1), first.get(10, TimeUnit.SECONDS));
+        assertEquals(Long.valueOf(2), second.get(10, TimeUnit.SECONDS));
+        assertEquals(Long.valueOf(2), delivered.get(2));
+    }
+
+    @Test
+    public void testLatestDropsADeliveryOlderThanOneAlreadyDelivered() throws Exception {
+        // run 11 publishes while run 10 is still building
+        assertEquals(Long.valueOf(11), latest("job:production", 11).get(10, TimeUnit.SECONDS));
+        assertEquals(Long.valueOf(-1), latest("job:production", 10).get(10, TimeUnit.SECONDS));
+        assertEquals(Long.valueOf(10), latest("other-job:production", 10).get(10, TimeUnit.SECONDS));
+        assertEquals(Long.valueOf(12), latest("job:production", 12).get(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(11L, 10L, 12L), delivered);
+    }
+
+    @Test
+    public void testFailedLatestDeliveryDoesNotDropOlderOnes() throws Exception {
+        CompletableFuture<Long> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("unreachable"));
+        try {
+            OrderedDeliveries.submitLatest("job:staging", 21, -1L, () -> failed).get(10, TimeUnit.SECONDS);
+            fail("the failure should be returned");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+
+        assertEquals(Long.valueOf(20), latest("job:staging", 20).get(10, TimeUnit.SECONDS));
+    }
+
+    private CompletableFuture<Long> latest(String key, long order) {
+        return OrderedDeliveries.submitLatest(key, order, -1L, () -> {
+            delivered.add(order);
+            return CompletableFuture.completedFuture(order);
+        });
+    }
+}
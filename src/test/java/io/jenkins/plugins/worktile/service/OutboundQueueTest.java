@@ -0,0 +1,82 @@
+package io.jenkins.plugins.worktile.service;
+
+import io.jenkins.plugins.worktile.client.ApiConnection;
+import io.jenkins.plugins.worktile.service.OutboundQueue.Priority;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.Assert.*;
+
+public class OutboundQueueTest {
+    private final List<String> sent = new ArrayList<>();
+
+    private CompletableFuture<String> submit(OutboundQueue queue, Priority priority, String folder, double weight,
+            int limit, String name) {
+        return queue.submit(priority, folder, weight, limit, () -> {
+            sent.add(name);
+            return CompletableFuture.completedFuture(name);
+        });
+    }
+
+    @Test
+    public void testPriorityThenFolderWeight() {
+        OutboundQueue queue = new OutboundQueue(1);
+        CompletableFuture<String> busy = new CompletableFuture<>();
+        queue.submit(Priority.BUILD, "", 1, 100, () -> busy);
+
+        submit(queue, Priority.BUILD, "a", 2, 100, "a1");
+        submit(queue, Priority.BUILD, "a", 2, 100, "a2");
+        submit(queue, Priority.BUILD, "a", 2, 100, "a3");
+        submit(queue, Priority.BUILD, "b", 0.8, 100, "b1");
+        submit(queue, Priority.FAILED_BUILD, "b", 1, 100, "failed");
+        submit(queue, Priority.DEPLOY, "b", 1, 100, "deploy");
+        assertTrue(sent.isEmpty());
+
+        busy.complete("done");
+        assertEquals(Arrays.asList("deploy", "failed", "a1", "a2", "b1", "a3"), sent);
+    }
+
+    @Test
+    public void testLoadShedding() throws Exception {
+        OutboundQueue queue = new OutboundQueue(1);
+        queue.submit(Priority.BUILD, "", 1, 2, CompletableFuture::new);
+
+        CompletableFuture<String> x = submit(queue, Priority.BUILD, "", 1, 2, "x");
+        CompletableFuture<String> y = submit(queue, Priority.BUILD, "", 1, 2, "y");
+        CompletableFuture<String> failed = submit(queue, Priority.FAILED_BUILD, "", 1, 2, "failed");
+        assertDropped(y);
+        CompletableFuture<String> w = submit(queue, Priority.BUILD, "", 1, 2, "w");
+        assertDropped(w);
+        assertEquals(2, queue.countDropped(Priority.BUILD));
+
+        submit(queue, Priority.DEPLOY, "", 1, 2, "d1");
+        assertDropped(x);
+        submit(queue, Priority.DEPLOY, "", 1, 2, "d2");
+        assertDropped(failed);
+        CompletableFuture<String> d3 = submit(queue, Priority.DEPLOY, "", 1, 2, "d3");
+        assertFalse(d3.isDone());
+        assertEquals(0, queue.countDropped(Priority.DEPLOY));
+        assertEquals(1, queue.countDropped(Priority.FAILED_BUILD));
+    }
+
+    private static void assertDropped(CompletableFuture<String> record) throws InterruptedException {
+        try {
+            record.get();
+            fail("the record was not dropped");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+
+    @Test
+    public void testSendsFitTheHttpClient() {
+        // the sends in flight must not take every call the client runs against the PingCode host
+        assertTrue(OutboundQueue.MAX_IN_FLIGHT < ApiConnection.MAX_REQUESTS_PER_HOST);
+    }
+}
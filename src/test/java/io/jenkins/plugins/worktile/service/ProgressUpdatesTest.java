@@ -0,0 +1,67 @@
+package io.jenkins.plugins.worktile.service;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ProgressUpdatesTest {
+
+    @Test
+    public void testUpdatesOfAWindowAreMerged() {
+        assertTrue(ProgressUpdates.merge("merged#1", null, "stage 1"));
+        assertFalse(ProgressUpdates.merge("merged#1", null, "stage 2"));
+        assertFalse(ProgressUpdates.merge("merged#1", null, "stage 3"));
+        assertTrue(ProgressUpdates.merge("other#1", null, "other"));
+
+        ProgressUpdates.Pending update = ProgressUpdates.take("merged#1");
+        assertEquals("stage 3", update.getOverview());
+        assertEquals(2, update.getMerged());
+        assertNull(ProgressUpdates.take("merged#1"));
+        assertEquals("other", ProgressUpdates.take("other#1").getOverview());
+
+        assertTrue(ProgressUpdates.merge("merged#1", null, "stage 4"));
+        ProgressUpdates.take("merged#1");
+    }
+
+    @Test
+    public void testUpdatesAfterTheFinalRecordAreDropped() {
+        assertTrue(ProgressUpdates.merge("finished#1", null, "stage 1"));
+        ProgressUpdates.finish("finished#1");
+
+        assertNull(ProgressUpdates.take("finished#1"));
+        assertFalse(ProgressUpdates.merge("finished#1", null, "stage 2"));
+        assertNull(ProgressUpdates.take("finished#1"));
+    }
+
+    @Test
+    public void testFinishedRunsAreForgottenOldestFirst() {
+        ProgressUpdates.finish("oldest#1");
+        for (int i = 0; i < ProgressUpdates.MAX_FINISHED; i++) {
+            ProgressUpdates.finish("finished#" + (i + 2));
+        }
+
+        assertTrue(ProgressUpdates.merge("oldest#1", null, "stage 1"));
+        ProgressUpdates.take("oldest#1");
+    }
+
+    @Test
+    public void testFinalRecordWaitsForTheProgressBeingSent() throws Exception {
+        assertTrue(ProgressUpdates.merge("streamed#1", null, "stage 1"));
+        ProgressUpdates.take("streamed#1");
+        CompletableFuture<String> progress = new CompletableFuture<>();
+        OrderedDeliveries.submitAsync(ProgressUpdates.key("streamed#1"), System.nanoTime(), () -> progress);
+
+        CompletableFuture<String> last = ProgressUpdates.finish("streamed#1",
+                () -> CompletableFuture.completedFuture("final"));
+        assertFalse(ProgressUpdates.merge("streamed#1", null, "stage 2"));
+        assertFalse(last.isDone());
+        progress.complete("in progress");
+        assertEquals("final", last.get(10, TimeUnit.SECONDS));
+
+        assertTrue(ProgressUpdates.finish("not-streamed#1", () -> CompletableFuture.completedFuture("final"))
+                .isDone());
+    }
+}
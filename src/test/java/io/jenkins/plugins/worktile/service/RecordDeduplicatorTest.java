@@ -0,0 +1,46 @@
+package io.jenkins.plugins.worktile.service;
+
+import io.jenkins.plugins.worktile.model.WTDeployEntity;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RecordDeduplicatorTest {
+
+    @Test
+    public void testHashIgnoresTimesAndItemOrder() {
+        WTDeployEntity first = new WTDeployEntity();
+        first.releaseName = "release-1";
+        first.envId = "env";
+        first.workItemIdentifiers = new String[] { "PLM-1", "PLM-2" };
+        first.startAt = 1;
+        WTDeployEntity second = first.forEnvironment("env", "env");
+        second.workItemIdentifiers = new String[] { "PLM-2", "PLM-1" };
+        second.startAt = 2;
+
+        assertEquals(RecordDeduplicator.hash(first), RecordDeduplicator.hash(second));
+        assertNotEquals(RecordDeduplicator.hash(first),
+                RecordDeduplicator.hash(first.forEnvironment("other", "other")));
+    }
+
+    @Test
+    public void testEnvironmentsWithoutIdAreToldApartByName() {
+        WTDeployEntity release = new WTDeployEntity();
+        release.releaseName = "release-1";
+
+        assertNotEquals(RecordDeduplicator.hash(release.forEnvironment(null, "staging")),
+                RecordDeduplicator.hash(release.forEnvironment(null, "production")));
+    }
+
+    @Test
+    public void testWindow() {
+        long suppressed = RecordDeduplicator.getSuppressed();
+        assertTrue(RecordDeduplicator.claim("window", 1000, 0));
+        assertFalse(RecordDeduplicator.claim("window", 1000, 999));
+        assertTrue(RecordDeduplicator.claim("window", 1000, 1000));
+        assertEquals(suppressed + 1, RecordDeduplicator.getSuppressed());
+
+        RecordDeduplicator.release("window");
+        assertTrue(RecordDeduplicator.claim("window", 1000, 1001));
+    }
+}
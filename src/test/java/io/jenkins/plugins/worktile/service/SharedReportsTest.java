@@ -0,0 +1,101 @@
+package io.jenkins.plugins.worktile.service;
+
+import hudson.model.Run;
+import hudson.util.StreamTaskListener;
+import io.jenkins.plugins.worktile.WTLogger;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class SharedReportsTest {
+    private final ByteArrayOutputStream log = new ByteArrayOutputStream();
+    private final WTLogger logger = new WTLogger(new StreamTaskListener(log, StandardCharsets.UTF_8),
+            WTLogger.Level.SUMMARY);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private CompletableFuture<String> share(Run<?, ?> run, List<?> key, CompletableFuture<String> outcome) {
+        return SharedReports.share(run, key, logger, "reused " + key, () -> {
+            calls.incrementAndGet();
+            return outcome;
+        });
+    }
+
+    @Test
+    public void testTwinsOfARunShareOneOutcome() throws Exception {
+        Run<?, ?> run = mock(Run.class);
+        List<?> key = SharedReports.key("build-notifier", "SUCCESS", "ws");
+        CompletableFuture<String> sending = new CompletableFuture<>();
+
+        CompletableFuture<String> first = share(run, key, sending);
+        CompletableFuture<String> second = share(run, SharedReports.key("build-notifier", "SUCCESS", "ws"),
+                CompletableFuture.completedFuture("again"));
+        assertFalse(second.isDone());
+        sending.complete("sent");
+
+        assertEquals("sent", first.get());
+        assertEquals("sent", second.get());
+        assertEquals(1, calls.get());
+        assertTrue(log.toString("UTF-8").contains("reused " + key));
+        assertTrue(SharedReports.has(run, "build"));
+        assertFalse(SharedReports.has(run, "deploy"));
+    }
+
+    @Test
+    public void testOtherKeysAndRunsAreNotShared() throws Exception {
+        Run<?, ?> run = mock(Run.class);
+        Run<?, ?> other = mock(Run.class);
+
+        assertEquals("a", share(run, SharedReports.key("deploy-step", "production"),
+                CompletableFuture.completedFuture("a")).get());
+        assertEquals("b", share(run, SharedReports.key("deploy-step", "staging"),
+                CompletableFuture.completedFuture("b")).get());
+        assertEquals("c", share(other, SharedReports.key("deploy-step", "production"),
+                CompletableFuture.completedFuture("c")).get());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testFailedOutcomeIsForgotten() throws Exception {
+        Run<?, ?> run = mock(Run.class);
+        List<?> key = SharedReports.key("build-step");
+        CompletableFuture<String> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IOException("unreachable"));
+
+        try {
+            SharedReports.await(share(run, key, failed));
+            fail("the failure should be rethrown");
+        } catch (IOException e) {
+            assertEquals("unreachable", e.getMessage());
+        }
+        assertEquals("sent", share(run, key, CompletableFuture.completedFuture("sent")).get());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testReuserSeesTheFailureOfTheRunningWork() throws InterruptedException {
+        Run<?, ?> run = mock(Run.class);
+        List<?> key = SharedReports.key("deploy-notifier");
+        CompletableFuture<String> sending = new CompletableFuture<>();
+
+        share(run, key, sending);
+        CompletableFuture<String> reused = share(run, key, CompletableFuture.completedFuture("unused"));
+        sending.completeExceptionally(new IOException("unreachable"));
+
+        try {
+            reused.get();
+            fail("the failure should reach the reuser");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        assertEquals(1, calls.get());
+    }
+}
@@ -0,0 +1,70 @@
+package io.jenkins.plugins.worktile.service;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class WTRestServiceTest {
+    private static final int DELIVERIES = ReportExecutor.THREADS * 2;
+
+    private final AtomicInteger bookkept = new AtomicInteger();
+
+    @Test
+    public void testDeliveriesCompleteWhileEveryReportThreadIsBusy() throws Exception {
+        CountDownLatch busy = new CountDownLatch(ReportExecutor.THREADS);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < ReportExecutor.THREADS; i++) {
+            ReportExecutor.get().execute(() -> {
+                busy.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        try {
+            assertTrue(busy.await(10, TimeUnit.SECONDS));
+            List<CompletableFuture<Boolean>> deliveries = new ArrayList<>();
+            for (int i = 0; i < DELIVERIES; i++) {
+                deliveries.add(WTRestService.sent(OutboundQueue.Priority.DEPLOY, "job",
+                        () -> CompletableFuture.supplyAsync(() -> "sent"), bookkept::incrementAndGet));
+            }
+
+            CompletableFuture.allOf(deliveries.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+            assertEquals(DELIVERIES, bookkept.get());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testWaitingDeployDeliveriesHoldNoReportThread() throws Exception {
+        CompletableFuture<Void> server = new CompletableFuture<>();
+        List<CompletableFuture<Boolean>> deliveries = new ArrayList<>();
+        for (int i = 0; i < DELIVERIES; i++) {
+            deliveries.add(OrderedDeliveries.submitAsync("environment-" + i, i,
+                    () -> WTRestService.sent(OutboundQueue.Priority.DEPLOY, "job",
+                            () -> server.thenApply(ignored -> "sent"), bookkept::incrementAndGet)));
+        }
+
+        assertEquals("free", ReportExecutor.supply(() -> "free").get(10, TimeUnit.SECONDS));
+        for (CompletableFuture<Boolean> delivery : deliveries) {
+            assertFalse(delivery.isDone());
+        }
+        server.complete(null);
+
+        CompletableFuture.allOf(deliveries.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+        for (CompletableFuture<Boolean> delivery : deliveries) {
+            assertTrue(delivery.get());
+        }
+        assertEquals(DELIVERIES, bookkept.get());
+    }
+}